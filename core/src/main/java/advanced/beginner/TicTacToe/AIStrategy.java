@@ -0,0 +1,84 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.function.BiFunction;
+
+/**
+ * MoveStrategy backed by one of the move selection methods of TicTacToeAI. TicTacToeAI
+ * holds on to the game it was built with, so a fresh one is created for every move;
+ * the strategy itself keeps no state and can be shared freely between threads.
+ */
+
+public class AIStrategy implements MoveStrategy {
+
+    private final String name;
+    private final long latencyBudgetNanos;
+    private final BiFunction<TicTacToeAI, Character, int[]> selector;
+
+    /**
+     * Creates a strategy with the given name and latency budget that picks its move
+     * using the given TicTacToeAI method.
+     */
+
+    public AIStrategy(String name, long latencyBudgetNanos,
+                      BiFunction<TicTacToeAI, Character, int[]> selector) {
+        this.name = name;
+        this.latencyBudgetNanos = latencyBudgetNanos;
+        this.selector = selector;
+    }
+
+    /**
+     * Returns a strategy that plays a random legal move.
+     */
+
+    public static AIStrategy random() {
+        return new AIStrategy("random", 1_000_000, (ai, player) -> ai.getRandomMove());
+    }
+
+    /**
+     * Returns a strategy that plays a winning move if one exists, otherwise a random
+     * move.
+     */
+
+    public static AIStrategy winningMove() {
+        return new AIStrategy("winning-move", 1_000_000, TicTacToeAI::getWinningMove);
+    }
+
+    /**
+     * Returns a strategy that wins if possible, otherwise blocks, otherwise plays a
+     * random move.
+     */
+
+    public static AIStrategy winBlock() {
+        return new AIStrategy("win-block", 1_000_000, TicTacToeAI::getWinBlockLoseAI);
+    }
+
+    /**
+     * Returns a strategy that searches the full game tree with minimax.
+     */
+
+    public static AIStrategy minimax() {
+        return new AIStrategy("minimax", 500_000_000, TicTacToeAI::getBestMove);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getLatencyBudgetNanos() {
+        return latencyBudgetNanos;
+    }
+
+    @Override
+    public int[] getMove(TicTacToe game, char player) {
+        return getMove(game, player, null);
+    }
+
+    @Override
+    public int[] getMove(TicTacToe game, char player, SearchMetrics metrics) {
+        TicTacToeAI ai = new TicTacToeAI(game);
+        ai.setMetrics(metrics);
+        return selector.apply(ai, player);
+    }
+}
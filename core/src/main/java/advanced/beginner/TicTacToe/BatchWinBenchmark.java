@@ -0,0 +1,121 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.Random;
+
+/**
+ * Compares how fast game status can be checked for a batch of boards using
+ * TicTacToe.playerWin() / gameDraw(), BatchWinDetector's scalar loop and
+ * BatchWinDetector.evaluate (vectorized when the Vector API is available). Also checks
+ * that all three agree.
+ *
+ * Run with: java --add-modules jdk.incubator.vector BatchWinBenchmark [boards]
+ */
+
+public class BatchWinBenchmark {
+
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        int[] boards = randomBoards(count, new Random(42));
+        byte[] results = new byte[count];
+        byte[] expected = new byte[count];
+
+        // TicTacToe objects are built up front; only the status checks are timed.
+        TicTacToe[] games = new TicTacToe[Math.min(count, 1 << 16)];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = PackedBoard.unpack(boards[i]);
+        }
+
+        for (int i = 0; i < games.length; i++) {
+            expected[i] = statusOf(games[i]);
+        }
+        BatchWinDetector.evaluate(boards, results);
+        for (int i = 0; i < games.length; i++) {
+            if (results[i] != expected[i]) {
+                throw new IllegalStateException("Mismatch for board " + i + ":\n"
+                        + games[i]);
+            }
+        }
+        BatchWinDetector.evaluateScalar(boards, expected, 0, count);
+        for (int i = 0; i < count; i++) {
+            if (results[i] != expected[i]) {
+                throw new IllegalStateException("Vector and scalar disagree at " + i);
+            }
+        }
+
+        System.out.println("vectorized: " + BatchWinDetector.isVectorized());
+
+        double objects = bestBoardsPerSecond(() -> {
+            for (int i = 0; i < games.length; i++) {
+                expected[i] = statusOf(games[i]);
+            }
+        }, games.length);
+        double scalar = bestBoardsPerSecond(
+                () -> BatchWinDetector.evaluateScalar(boards, results, 0, count), count);
+        double batch = bestBoardsPerSecond(
+                () -> BatchWinDetector.evaluate(boards, results), count);
+
+        System.out.printf("TicTacToe.playerWin: %,.0f boards/s%n", objects);
+        System.out.printf("scalar batch:        %,.0f boards/s (%.1fx)%n", scalar,
+                scalar / objects);
+        System.out.printf("batch:               %,.0f boards/s (%.1fx)%n", batch,
+                batch / objects);
+    }
+
+    /**
+     * Returns the status TicTacToe itself reports for a game.
+     */
+
+    private static byte statusOf(TicTacToe game) {
+        char winner = game.playerWin();
+
+        if (winner == TicTacToe.X) {
+            return BatchWinDetector.X_WIN;
+        } else if (winner == TicTacToe.O) {
+            return BatchWinDetector.O_WIN;
+        } else if (game.gameDraw()) {
+            return BatchWinDetector.DRAW;
+        }
+        return BatchWinDetector.IN_PROGRESS;
+    }
+
+    private static double bestBoardsPerSecond(Runnable run, int boards) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return boards * 1e9 / best;
+    }
+
+    /**
+     * Returns boards from random games, stopped after a random number of moves. Games
+     * carry on past a win, so some boards have lines for both players.
+     */
+
+    private static int[] randomBoards(int count, Random random) {
+        int[] boards = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            int board = PackedBoard.EMPTY;
+            int moves = random.nextInt(PackedBoard.CELLS + 1);
+            char player = TicTacToe.X;
+
+            for (int m = 0; m < moves; m++) {
+                int x;
+                int y;
+                do {
+                    x = random.nextInt(3);
+                    y = random.nextInt(3);
+                } while (PackedBoard.getPieceAt(board, x, y) != TicTacToe.NULL);
+
+                board = PackedBoard.withPiece(board, x, y, player);
+                player = player == TicTacToe.X ? TicTacToe.O : TicTacToe.X;
+            }
+            boards[i] = board;
+        }
+        return boards;
+    }
+}
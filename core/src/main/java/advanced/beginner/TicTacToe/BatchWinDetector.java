@@ -0,0 +1,129 @@
+package advanced.beginner.TicTacToe;
+
+/**
+ * Checks many packed boards (see PackedBoard) for a win, draw or game in progress in
+ * one call. When the jdk.incubator.vector module is available (run with
+ * --add-modules jdk.incubator.vector) whole groups of boards are checked at once in
+ * SIMD lanes; otherwise a scalar loop is used. Both give the same answers.
+ *
+ * Results agree with TicTacToe.playerWin() and gameDraw() for the same board: lines
+ * are checked in the same order, so even a board with a line for both players reports
+ * the same winner. A board counts as finished when all 9 squares are filled, which is
+ * TicTacToe's turn count for any game built with move().
+ */
+
+public final class BatchWinDetector {
+
+    public final static byte IN_PROGRESS = 0;
+    public final static byte X_WIN = 1;
+    public final static byte O_WIN = 2;
+    public final static byte DRAW = 3;
+
+    // columns, rows, then diagonals: the order of TicTacToe.getLines().
+    static final int[] LINES = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000,
+            0b001_001_001, 0b010_010_010, 0b100_100_100,
+            0b100_010_001, 0b001_010_100};
+
+    private static final boolean VECTORIZED = vectorApiAvailable();
+
+    private BatchWinDetector() {
+    }
+
+    private static boolean vectorApiAvailable() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            Class.forName("advanced.beginner.TicTacToe.VectorWinKernel");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if batches are checked with the Vector API.
+     */
+
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Writes the status (IN_PROGRESS, X_WIN, O_WIN or DRAW) of every board into the
+     * matching slot of results.
+     */
+
+    public static void evaluate(int[] boards, byte[] results) {
+        evaluate(boards, results, 0, boards.length);
+    }
+
+    /**
+     * Writes the status of boards[from] up to (not including) boards[to] into the
+     * matching slots of results.
+     */
+
+    public static void evaluate(int[] boards, byte[] results, int from, int to) {
+        if (VECTORIZED) {
+            VectorWinKernel.evaluate(boards, results, from, to);
+        } else {
+            evaluateScalar(boards, results, from, to);
+        }
+    }
+
+    /**
+     * Same as evaluate, but always uses the scalar loop.
+     */
+
+    public static void evaluateScalar(int[] boards, byte[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = status(boards[i]);
+        }
+    }
+
+    /**
+     * Returns the status of a single packed board.
+     */
+
+    public static byte status(int board) {
+        char winner = winner(board);
+
+        if (winner == TicTacToe.X) {
+            return X_WIN;
+        } else if (winner == TicTacToe.O) {
+            return O_WIN;
+        } else if ((PackedBoard.xMask(board) | PackedBoard.oMask(board))
+                == PackedBoard.FULL_MASK) {
+            return DRAW;
+        }
+        return IN_PROGRESS;
+    }
+
+    /**
+     * Returns either X or O depending on which player has three in a row on a packed
+     * board. Returns '-' if no one has.
+     */
+
+    public static char winner(int board) {
+        int x = PackedBoard.xMask(board);
+        int o = PackedBoard.oMask(board);
+
+        for (int line : LINES) {
+            if ((x & line) == line) {
+                return TicTacToe.X;
+            } else if ((o & line) == line) {
+                return TicTacToe.O;
+            }
+        }
+        return TicTacToe.NULL;
+    }
+
+    /**
+     * Returns true if the status means the game is over.
+     */
+
+    public static boolean isGameOver(byte status) {
+        return status != IN_PROGRESS;
+    }
+}
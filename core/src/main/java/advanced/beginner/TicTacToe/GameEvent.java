@@ -0,0 +1,110 @@
+package advanced.beginner.TicTacToe;
+
+/**
+ * Something that happened to a LiveGame, together with the snapshot taken right after
+ * it. Sent to subscribers of the game's GameEventPublisher.
+ */
+
+public final class GameEvent {
+
+    /**
+     * Kinds of game events.
+     */
+
+    public enum Type {
+        /** A piece was placed. */
+        MOVE,
+        /** A piece was taken back off the board. */
+        REMOVE,
+        /** The last move ended the game. Always follows that move's MOVE event. */
+        GAME_OVER,
+        /** The board was cleared for a new game. */
+        NEW_GAME
+    }
+
+    private final Type type;
+    private final GameSnapshot snapshot;
+    private final int x;
+    private final int y;
+    private final char player;
+
+    private GameEvent(Type type, GameSnapshot snapshot, int x, int y, char player) {
+        this.type = type;
+        this.snapshot = snapshot;
+        this.x = x;
+        this.y = y;
+        this.player = player;
+    }
+
+    public static GameEvent move(GameSnapshot snapshot, int x, int y, char player) {
+        return new GameEvent(Type.MOVE, snapshot, x, y, player);
+    }
+
+    public static GameEvent remove(GameSnapshot snapshot, int x, int y) {
+        return new GameEvent(Type.REMOVE, snapshot, x, y, TicTacToe.NULL);
+    }
+
+    public static GameEvent gameOver(GameSnapshot snapshot) {
+        return new GameEvent(Type.GAME_OVER, snapshot, -1, -1, snapshot.playerWin());
+    }
+
+    public static GameEvent newGame(GameSnapshot snapshot) {
+        return new GameEvent(Type.NEW_GAME, snapshot, -1, -1, TicTacToe.NULL);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the state of the game right after the event.
+     */
+
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns row of the square for MOVE and REMOVE events, otherwise -1.
+     */
+
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Returns column of the square for MOVE and REMOVE events, otherwise -1.
+     */
+
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Returns the piece placed for MOVE events, the winner (or '-' for a draw) for
+     * GAME_OVER events, otherwise '-'.
+     */
+
+    public char getPlayer() {
+        return player;
+    }
+
+    /**
+     * Overrides toString method.
+     */
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case MOVE:
+                return player + " moved to " + x + "," + y;
+            case REMOVE:
+                return "removed " + x + "," + y;
+            case GAME_OVER:
+                return player == TicTacToe.NULL ? "game over: draw" : "game over: "
+                        + player + " wins";
+            default:
+                return "new game";
+        }
+    }
+}
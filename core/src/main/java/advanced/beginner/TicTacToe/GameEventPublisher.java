@@ -0,0 +1,350 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flow publisher that fans GameEvents out to any number of subscribers. Submitting an
+ * event only appends it to one shared queue and, if none is pending, schedules a
+ * single dispatch task, so the cost to the thread making moves does not grow with the
+ * number of subscribers. The dispatch task copies queued events into each
+ * subscriber's bounded buffer, and each subscriber's own drain task delivers them on
+ * the executor, so a slow subscriber never holds up the others either.
+ *
+ * Subscribers receive events in batches (a List of up to maxBatchSize events), and
+ * each request(n) asks for n batches. When a subscriber's buffer is full its
+ * OverflowPolicy decides which event is lost.
+ */
+
+public class GameEventPublisher implements Flow.Publisher<List<GameEvent>>, AutoCloseable {
+
+    /**
+     * What to do with a new event when a subscriber's buffer is full.
+     */
+
+    public enum OverflowPolicy {
+        /** Drop the new event and keep what is buffered. */
+        DROP,
+        /** Drop the oldest buffered event to make room, keeping the latest ones. */
+        LATEST
+    }
+
+    private final Executor executor;
+    private final int bufferSize;
+    private final int maxBatchSize;
+    private final OverflowPolicy policy;
+    private final List<BufferedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<GameEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger dispatchWip = new AtomicInteger();
+    private final Runnable dispatcher = this::dispatch;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a publisher that delivers on the common fork join pool, buffers up to
+     * Flow.defaultBufferSize() events per subscriber, and keeps the latest events.
+     */
+
+    public GameEventPublisher() {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize(), 64, OverflowPolicy.LATEST);
+    }
+
+    /**
+     * Creates a publisher with the given delivery executor, per subscriber buffer
+     * size, largest batch and default overflow policy.
+     */
+
+    public GameEventPublisher(Executor executor, int bufferSize, int maxBatchSize,
+                              OverflowPolicy policy) {
+        if (bufferSize < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Buffer and batch size must be positive");
+        }
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.maxBatchSize = maxBatchSize;
+        this.policy = policy;
+    }
+
+    /**
+     * Subscribes with the publisher's default overflow policy.
+     */
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<GameEvent>> subscriber) {
+        subscribe(subscriber, policy);
+    }
+
+    /**
+     * Subscribes with the given overflow policy. Subscribers receive the events
+     * dispatched after they subscribe. Subscribing to a closed publisher completes the
+     * subscriber straight away.
+     */
+
+    public void subscribe(Flow.Subscriber<? super List<GameEvent>> subscriber,
+                          OverflowPolicy overflowPolicy) {
+        BufferedSubscription subscription =
+                new BufferedSubscription(subscriber, overflowPolicy);
+        subscriber.onSubscribe(subscription);
+
+        if (subscription.cancelled) { // e.g. a duplicate subscription, rule 2.5
+            return;
+        }
+        if (closed) {
+            subscription.complete();
+            return;
+        }
+        subscriptions.add(subscription);
+        if (subscription.cancelled) { // cancel() may have run before the add
+            subscriptions.remove(subscription);
+        }
+        if (closed) { // close() may have dispatched before the add
+            scheduleDispatch();
+        }
+    }
+
+    /**
+     * Returns true if the publisher is open and anyone is subscribed. Lets callers
+     * skip building events nobody will see.
+     */
+
+    public boolean hasSubscribers() {
+        return !closed && !subscriptions.isEmpty();
+    }
+
+    /**
+     * Returns number of current subscribers.
+     */
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Returns number of events dropped so far because a buffer was full.
+     */
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Queues an event for every subscriber. Never blocks on subscribers. Does nothing
+     * once the publisher is closed.
+     */
+
+    public void submit(GameEvent event) {
+        if (closed) {
+            return;
+        }
+        pending.offer(event);
+        scheduleDispatch();
+    }
+
+    /**
+     * Stops taking events. Every subscriber is completed once it has received the
+     * events submitted before the close.
+     */
+
+    @Override
+    public void close() {
+        closed = true;
+        scheduleDispatch();
+    }
+
+    private void scheduleDispatch() {
+        if (dispatchWip.getAndIncrement() == 0) {
+            try {
+                executor.execute(dispatcher);
+            } catch (RejectedExecutionException e) {
+                // nothing can be delivered any more; fail every subscriber.
+                closed = true;
+                pending.clear();
+                for (BufferedSubscription subscription : subscriptions) {
+                    subscription.cancel();
+                    subscription.subscriber.onError(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves queued events into each subscriber's buffer and wakes the subscribers
+     * that got any. Only one dispatch runs at a time.
+     */
+
+    private void dispatch() {
+        int missed = 1;
+        ArrayList<GameEvent> batch = new ArrayList<>();
+        do {
+            GameEvent event;
+            while ((event = pending.poll()) != null) {
+                batch.add(event);
+            }
+            if (!batch.isEmpty()) {
+                for (BufferedSubscription subscription : subscriptions) {
+                    subscription.offer(batch);
+                }
+                batch.clear();
+            }
+
+            if (closed) {
+                for (BufferedSubscription subscription : subscriptions) {
+                    subscriptions.remove(subscription);
+                    subscription.complete();
+                }
+            }
+            missed = dispatchWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Per subscriber buffer plus the drain task that delivers it. Only one drain runs
+     * at a time; wip counts how many times a drain was asked for, so signals that come
+     * in while it runs are picked up before it exits.
+     */
+
+    private class BufferedSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super List<GameEvent>> subscriber;
+        private final OverflowPolicy overflowPolicy;
+        private final ArrayDeque<GameEvent> buffer = new ArrayDeque<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean done = false;
+        private volatile boolean cancelled = false;
+        private Throwable error;
+
+        BufferedSubscription(Flow.Subscriber<? super List<GameEvent>> subscriber,
+                             OverflowPolicy overflowPolicy) {
+            this.subscriber = subscriber;
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        /**
+         * Buffers a run of events, applying the overflow policy to each, then makes
+         * sure a drain is scheduled.
+         */
+
+        void offer(List<GameEvent> events) {
+            if (cancelled) {
+                return;
+            }
+            synchronized (buffer) {
+                for (GameEvent event : events) {
+                    if (buffer.size() == bufferSize) {
+                        dropped.increment();
+                        if (overflowPolicy == OverflowPolicy.DROP) {
+                            continue;
+                        }
+                        buffer.pollFirst();
+                    }
+                    buffer.addLast(event);
+                }
+            }
+            schedule();
+        }
+
+        void complete() {
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested " + n + " batches");
+                done = true;
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE
+                        : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    cancel();
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (drain()) {
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Delivers as many batches as there is demand for. Returns true once the
+         * subscriber has been cancelled or terminated.
+         */
+
+        private boolean drain() {
+            while (!cancelled) {
+                if (error != null) {
+                    cancel();
+                    subscriber.onError(error);
+                    return true;
+                }
+
+                List<GameEvent> batch = null;
+                boolean empty;
+                synchronized (buffer) {
+                    if (demand.get() > 0 && !buffer.isEmpty()) {
+                        batch = new ArrayList<>(Math.min(buffer.size(), maxBatchSize));
+                        while (batch.size() < maxBatchSize && !buffer.isEmpty()) {
+                            batch.add(buffer.pollFirst());
+                        }
+                    }
+                    empty = buffer.isEmpty();
+                }
+
+                if (batch != null) {
+                    demand.decrementAndGet();
+                    try {
+                        subscriber.onNext(batch);
+                    } catch (Throwable t) {
+                        cancel();
+                        subscriber.onError(t);
+                        return true;
+                    }
+                } else if (done && empty) {
+                    cancel();
+                    subscriber.onComplete();
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
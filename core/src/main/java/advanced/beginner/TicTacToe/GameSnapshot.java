@@ -0,0 +1,178 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.ArrayList;
+
+/**
+ * Immutable view of a TicTacToe game at one point in time, packed into a single long:
+ * the low 18 bits are a PackedBoard, the next 4 bits the turn count, and the bits from
+ * 32 up a version number that goes up by one for every change to the live game.
+ *
+ * Offers the same read methods as TicTacToe, so it can be handed to any number of
+ * threads without locking or copying.
+ */
+
+public final class GameSnapshot {
+
+    public final static GameSnapshot EMPTY = new GameSnapshot(0L);
+
+    private static final int TURN_SHIFT = 2 * PackedBoard.CELLS;
+    private static final int VERSION_SHIFT = 32;
+
+    private final long bits;
+
+    private GameSnapshot(long bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Returns a snapshot of the given game, tagged with a version number. Throws
+     * IllegalArgumentException if the turn count is not 0 - 9 or the version does not
+     * fit in 32 bits.
+     */
+
+    public static GameSnapshot of(TicTacToe game, long version) {
+        if (game.getTurnCount() < 0 || game.getTurnCount() > PackedBoard.CELLS) {
+            throw new IllegalArgumentException("Turn count out of range: "
+                    + game.getTurnCount());
+        }
+        if (version < 0 || version >= (1L << (64 - VERSION_SHIFT))) {
+            throw new IllegalArgumentException("Version out of range: " + version);
+        }
+        return fromBits(PackedBoard.pack(game)
+                | ((long) game.getTurnCount() << TURN_SHIFT)
+                | (version << VERSION_SHIFT));
+    }
+
+    /**
+     * Returns the snapshot stored in a long from getBits.
+     */
+
+    public static GameSnapshot fromBits(long bits) {
+        return bits == 0 ? EMPTY : new GameSnapshot(bits);
+    }
+
+    /**
+     * Returns the packed form of this snapshot.
+     */
+
+    public long getBits() {
+        return bits;
+    }
+
+    /**
+     * Returns the board as a PackedBoard.
+     */
+
+    public int getBoard() {
+        return (int) (bits & ((1L << TURN_SHIFT) - 1));
+    }
+
+    /**
+     * Returns the version of the live game this snapshot was taken at.
+     */
+
+    public long getVersion() {
+        return bits >>> VERSION_SHIFT;
+    }
+
+    /**
+     * Returns turn count.
+     */
+
+    public int getTurnCount() {
+        return (int) (bits >>> TURN_SHIFT) & 0xF;
+    }
+
+    /**
+     * Returns X or O depending on whose turn it is
+     */
+
+    public char getTurn() {
+        return getTurnCount() % 2 == 0 ? TicTacToe.X : TicTacToe.O;
+    }
+
+    /**
+     * Returns piece at given location.
+     */
+
+    public char getPieceAt(int x, int y) {
+        return PackedBoard.getPieceAt(getBoard(), x, y);
+    }
+
+    /**
+     * Returns either X or O depending on which player won the game. Returns '-' if no
+     * one has yet won.
+     */
+
+    public char playerWin() {
+        return BatchWinDetector.winner(getBoard());
+    }
+
+    /**
+     * Returns true if the game is over.
+     */
+
+    public boolean gameOver() {
+        return getTurnCount() == PackedBoard.CELLS || playerWin() != TicTacToe.NULL;
+    }
+
+    /**
+     * Returns true if the game is a draw.
+     */
+
+    public boolean gameDraw() {
+        return getTurnCount() == PackedBoard.CELLS && playerWin() == TicTacToe.NULL;
+    }
+
+    /**
+     * Returns a new list of all available moves.
+     */
+
+    public ArrayList<int[]> getMoves() {
+        ArrayList<int[]> moves = new ArrayList<>();
+        int occupied = PackedBoard.xMask(getBoard()) | PackedBoard.oMask(getBoard());
+
+        for (int i = 0; i < PackedBoard.CELLS; i++) {
+            if ((occupied & (1 << i)) == 0) {
+                moves.add(new int[]{i / 3, i % 3});
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Returns a mutable TicTacToe game with this snapshot's board and turn count.
+     */
+
+    public TicTacToe toGame() {
+        return PackedBoard.unpack(getBoard());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof GameSnapshot && ((GameSnapshot) other).bits == bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits);
+    }
+
+    /**
+     * Overrides toString method.
+     */
+
+    @Override
+    public String toString() {
+
+        String output = "Turn Count: " + getTurnCount();
+
+        for (int i = 0; i < 3; i++) {
+            output += "\n";
+            for (int j = 0; j < 3; j++) {
+                output += getPieceAt(i, j) + " ";
+            }
+        }
+        return output;
+    }
+}
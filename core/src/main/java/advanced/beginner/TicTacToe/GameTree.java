@@ -0,0 +1,336 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Game tree of TicTacToe positions for analysis tools and bots. Children are only
+ * created when asked for, and every position is stored once: move orders that reach
+ * the same board share one Node, so the tree is really a DAG. Each node works out its
+ * minimax value the first time it is asked and keeps it, so later queries about the
+ * same position are free.
+ *
+ * Nodes are keyed by their PackedBoard. Whose turn it is follows from the number of
+ * pieces, X moving first, as in TicTacToe.
+ *
+ * Memory stays bounded by pruning: advance() moves the root down one move and forgets
+ * every position that can no longer be reached, and Node.collapse() drops a subtree
+ * while keeping its value. A node that has been pruned is detached: whatever it already
+ * knows can still be read, but it can no longer be expanded, since its children would
+ * be added to a tree that no longer holds it. A GameTree is not thread safe.
+ */
+
+public class GameTree {
+
+    private final Map<Integer, Node> nodes = new HashMap<>();
+    private Node root;
+
+    /**
+     * Creates a tree rooted at the empty board.
+     */
+
+    public GameTree() {
+        root = getNode(PackedBoard.EMPTY);
+    }
+
+    /**
+     * Creates a tree rooted at the current position of a game.
+     */
+
+    public GameTree(TicTacToe game) {
+        root = getNode(PackedBoard.pack(game));
+    }
+
+    /**
+     * Returns the root node.
+     */
+
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the node of a game's current position, creating it if needed.
+     */
+
+    public Node getNode(TicTacToe game) {
+        return getNode(PackedBoard.pack(game));
+    }
+
+    /**
+     * Returns the node of a packed board, creating it if needed.
+     */
+
+    public Node getNode(int board) {
+        return nodes.computeIfAbsent(board, Node::new);
+    }
+
+    /**
+     * Returns true if the tree already holds a node for the packed board.
+     */
+
+    public boolean contains(int board) {
+        return nodes.containsKey(board);
+    }
+
+    /**
+     * Returns number of nodes in the tree.
+     */
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Makes the child reached by the given move the new root, and prunes every node no
+     * longer reachable from it. Returns the new root.
+     */
+
+    public Node advance(int x, int y) {
+        Node child = root.getChild(x, y);
+        if (child == null) {
+            throw new IllegalArgumentException("Not a legal move: " + x + "," + y);
+        }
+        root = child;
+        prune();
+        return root;
+    }
+
+    /**
+     * Makes the given node the new root and prunes every node no longer reachable
+     * from it.
+     */
+
+    public void setRoot(Node node) {
+        root = nodes.get(node.board) == node ? node : getNode(node.board);
+        prune();
+    }
+
+    /**
+     * Forgets every node that can't be reached from the root through children that
+     * have already been expanded.
+     */
+
+    public void prune() {
+        Map<Integer, Node> reachable = new HashMap<>();
+        ArrayDeque<Node> toVisit = new ArrayDeque<>();
+        reachable.put(root.board, root);
+        toVisit.add(root);
+
+        while (!toVisit.isEmpty()) {
+            Node node = toVisit.poll();
+            if (node.children == null) {
+                continue;
+            }
+            for (Node child : node.children) {
+                if (child != null && reachable.putIfAbsent(child.board, child) == null) {
+                    toVisit.add(child);
+                }
+            }
+        }
+        nodes.keySet().retainAll(reachable.keySet());
+    }
+
+    /**
+     * One position in the tree.
+     */
+
+    public final class Node {
+
+        private final int board;
+        private final byte status;
+        private Node[] children; // indexed by square, null until expanded
+        private byte value = -1; // BatchWinDetector result, -1 until computed
+
+        private Node(int board) {
+            this.board = board;
+            this.status = BatchWinDetector.status(board);
+        }
+
+        /**
+         * Returns the position as a PackedBoard.
+         */
+
+        public int getBoard() {
+            return board;
+        }
+
+        /**
+         * Returns X or O depending on whose turn it is
+         */
+
+        public char getTurn() {
+            return PackedBoard.pieceCount(board) % 2 == 0 ? TicTacToe.X : TicTacToe.O;
+        }
+
+        /**
+         * Returns true if the game is over in this position.
+         */
+
+        public boolean isTerminal() {
+            return BatchWinDetector.isGameOver(status);
+        }
+
+        /**
+         * Returns true if the children have been created.
+         */
+
+        public boolean isExpanded() {
+            return children != null;
+        }
+
+        /**
+         * Returns true if this node has been pruned from its tree.
+         */
+
+        public boolean isDetached() {
+            return nodes.get(board) != this;
+        }
+
+        /**
+         * Returns the position after the player to move plays (x, y), or null if the
+         * square is taken or the game is over. Expands the node if needed, and throws
+         * IllegalStateException if it is detached and not yet expanded.
+         */
+
+        public Node getChild(int x, int y) {
+            expand();
+            return children[x * 3 + y];
+        }
+
+        /**
+         * Returns every position one move away. Expands the node if needed.
+         */
+
+        public List<Node> getChildren() {
+            expand();
+            List<Node> list = new ArrayList<>();
+            for (Node child : children) {
+                if (child != null) {
+                    list.add(child);
+                }
+            }
+            return list;
+        }
+
+        private void expand() {
+            if (children != null) {
+                return;
+            }
+            if (isDetached()) {
+                throw new IllegalStateException("Node was pruned from the tree:\n" + this);
+            }
+            children = new Node[PackedBoard.CELLS];
+            if (isTerminal()) {
+                return;
+            }
+            for (int square = 0; square < PackedBoard.CELLS; square++) {
+                int x = square / 3;
+                int y = square % 3;
+                if (PackedBoard.getPieceAt(board, x, y) == TicTacToe.NULL) {
+                    // shares the node with any other move order reaching this board.
+                    children[square] = getNode(PackedBoard.withPiece(board, x, y,
+                            getTurn()));
+                }
+            }
+        }
+
+        /**
+         * Returns the result with perfect play from here on: BatchWinDetector.X_WIN,
+         * O_WIN or DRAW. Computed on first call and cached.
+         */
+
+        public byte getValue() {
+            if (value == -1) {
+                value = computeValue();
+            }
+            return value;
+        }
+
+        private byte computeValue() {
+            if (isTerminal()) {
+                return status;
+            }
+            byte win = getTurn() == TicTacToe.X ? BatchWinDetector.X_WIN
+                    : BatchWinDetector.O_WIN;
+            byte best = win == BatchWinDetector.X_WIN ? BatchWinDetector.O_WIN
+                    : BatchWinDetector.X_WIN;
+
+            for (Node child : getChildren()) {
+                byte childValue = child.getValue();
+                if (childValue == win) {
+                    return win;
+                } else if (childValue == BatchWinDetector.DRAW) {
+                    best = BatchWinDetector.DRAW;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Returns 10 if the given player wins with perfect play from here, 0 for a
+         * draw, and -10 if the player loses; the scores TicTacToeAI.minimaxScore uses.
+         */
+
+        public int getScore(char player) {
+            byte result = getValue();
+            if (result == BatchWinDetector.DRAW) {
+                return 0;
+            }
+            boolean xWins = result == BatchWinDetector.X_WIN;
+            return xWins == (player == TicTacToe.X) ? 10 : -10;
+        }
+
+        /**
+         * Returns an int[] with the grid location of the best move for the player to
+         * move, or null if the game is over.
+         */
+
+        public int[] getBestMove() {
+            expand();
+            char player = getTurn();
+            int[] bestMove = null;
+            int bestScore = Integer.MIN_VALUE;
+
+            for (int square = 0; square < PackedBoard.CELLS; square++) {
+                Node child = children[square];
+                if (child != null && child.getScore(player) > bestScore) {
+                    bestScore = child.getScore(player);
+                    bestMove = new int[]{square / 3, square % 3};
+                }
+            }
+            return bestMove;
+        }
+
+        /**
+         * Drops this node's children to save memory. The cached value is kept, and
+         * the children are recreated if they are asked for again. Call prune() on the
+         * tree afterwards to actually forget nodes that became unreachable.
+         */
+
+        public void collapse() {
+            getValue(); // keep the answer before forgetting how we got it
+            children = null;
+        }
+
+        /**
+         * Returns a mutable TicTacToe game of this position.
+         */
+
+        public TicTacToe toGame() {
+            return PackedBoard.unpack(board);
+        }
+
+        /**
+         * Overrides toString method.
+         */
+
+        @Override
+        public String toString() {
+            return toGame().toString();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package advanced.beginner.TicTacToe;
+
+/**
+ * MoveStrategy that plays perfectly from one long-lived GameTree. Every position the
+ * strategy has been asked about keeps its minimax value, so after the first game the
+ * answers are lookups rather than searches. Positions are matched by board alone, so
+ * the strategy can only move for the player the piece counts say is to move, X first,
+ * and throws IllegalArgumentException when asked to move for the other one.
+ *
+ * Calls are serialized on the tree, which is small: 3x3 has 5478 legal positions.
+ */
+
+public class GameTreeStrategy implements MoveStrategy {
+
+    private final GameTree tree = new GameTree();
+
+    @Override
+    public String getName() {
+        return "game-tree";
+    }
+
+    @Override
+    public long getLatencyBudgetNanos() {
+        return 50_000_000;
+    }
+
+    @Override
+    public int[] getMove(TicTacToe game, char player) {
+        return getMove(game, player, null);
+    }
+
+    @Override
+    public synchronized int[] getMove(TicTacToe game, char player, SearchMetrics metrics) {
+        int board = PackedBoard.pack(game);
+        char turn = PackedBoard.pieceCount(board) % 2 == 0 ? TicTacToe.X : TicTacToe.O;
+        if (player != turn) {
+            throw new IllegalArgumentException("It is " + turn + "'s turn, not "
+                    + player + "'s");
+        }
+        if (metrics != null) {
+            metrics.cacheLookup(tree.contains(board));
+            metrics.visit(0);
+        }
+        return tree.getNode(board).getBestMove();
+    }
+}
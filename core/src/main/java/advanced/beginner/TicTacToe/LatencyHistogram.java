@@ -0,0 +1,148 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram in the style of HdrHistogram. Values are grouped into
+ * power-of-two ranges, and each range is split into 16 linear sub-buckets, so any
+ * recorded value is reported within about 6% of its true size. Recording is a single
+ * atomic increment and never allocates.
+ */
+
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records a single latency, in nanoseconds. Negative values are recorded as 0.
+     */
+
+    public void recordNanos(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(nanos, 0)));
+    }
+
+    /**
+     * Returns the number of recorded values.
+     */
+
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of recorded values that are larger than the given limit, to
+     * the histogram's resolution. Only buckets lying wholly above the limit are
+     * counted, so values in the limit's own bucket, up to about 6% above it, are left
+     * out and the result is a lower bound.
+     */
+
+    public long getCountAbove(long nanos) {
+        long total = 0;
+        for (int i = BUCKETS - 1; i >= 0 && lowestValueOf(i) > nanos; i--) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the value at the given percentile (0 - 100), in nanoseconds. The value
+     * returned is the upper edge of the bucket the percentile falls in. Returns 0 if
+     * nothing has been recorded.
+     */
+
+    public long getPercentileNanos(double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100);
+        target = Math.max(target, 1);
+
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(BUCKETS - 1);
+    }
+
+    /**
+     * Returns the mean of all recorded values, in nanoseconds, using the midpoint of
+     * each bucket.
+     */
+
+    public double getMeanNanos() {
+        long total = 0;
+        double sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                total += count;
+                sum += count * ((lowestValueOf(i) + (double) highestValueOf(i)) / 2);
+            }
+        }
+        return total == 0 ? 0 : sum / total;
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Returns the bucket index a value is recorded in.
+     */
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long lowestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (magnitude - SUB_BUCKET_BITS);
+    }
+
+    private static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return lowestValueOf(bucket) + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Overrides toString method.
+     */
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus",
+                getCount(), getMeanNanos() / 1e3, getPercentileNanos(50) / 1e3,
+                getPercentileNanos(99) / 1e3, getPercentileNanos(100) / 1e3);
+    }
+}
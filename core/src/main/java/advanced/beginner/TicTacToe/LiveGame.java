@@ -0,0 +1,133 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A TicTacToe game that can be watched from other threads. One writer changes the game
+ * through this class, and after every change the new GameSnapshot is published through
+ * an AtomicReference. Spectators call getSnapshot() to read the current state without
+ * locking the writer out or copying the board.
+ *
+ * Every change is also sent as a GameEvent to subscribers of getEvents(). Events are
+ * only built when someone is subscribed.
+ *
+ * The wrapped TicTacToe must only be changed through this class, and only read
+ * directly by the writer.
+ */
+
+public class LiveGame {
+
+    private final TicTacToe game;
+    private final AtomicReference<GameSnapshot> snapshot;
+    private final GameEventPublisher events;
+    private long version = 0;
+
+    /**
+     * Creates a live game around a new TicTacToe game.
+     */
+
+    public LiveGame() {
+        this(new TicTacToe());
+    }
+
+    /**
+     * Creates a live game around an existing TicTacToe game.
+     */
+
+    public LiveGame(TicTacToe game) {
+        this(game, new GameEventPublisher());
+    }
+
+    /**
+     * Creates a live game around an existing TicTacToe game that sends its events to
+     * the given publisher.
+     */
+
+    public LiveGame(TicTacToe game, GameEventPublisher events) {
+        this.game = game;
+        this.events = events;
+        this.snapshot = new AtomicReference<>(GameSnapshot.of(game, version));
+    }
+
+    /**
+     * Returns the most recently published snapshot. Safe to call from any thread.
+     */
+
+    public GameSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Returns the publisher of this game's events.
+     */
+
+    public GameEventPublisher getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns the wrapped game, for the writer thread only.
+     */
+
+    public TicTacToe getGame() {
+        return game;
+    }
+
+    /**
+     * Places a piece and publishes the new snapshot. Returns false, and changes
+     * nothing, if the square is already taken.
+     */
+
+    public synchronized boolean move(int x, int y, char player) {
+        if (game.getPieceAt(x, y) != TicTacToe.NULL) {
+            return false;
+        }
+        game.move(game, x, y, player);
+        GameSnapshot current = publish();
+
+        if (events.hasSubscribers()) {
+            events.submit(GameEvent.move(current, x, y, player));
+            if (current.gameOver()) {
+                events.submit(GameEvent.gameOver(current));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a single move from board and publishes the new snapshot. Returns false,
+     * and changes nothing, if the square is empty.
+     */
+
+    public synchronized boolean removeMove(int x, int y) {
+        if (game.getPieceAt(x, y) == TicTacToe.NULL) {
+            return false;
+        }
+        game.removeMove(game, x, y);
+        GameSnapshot current = publish();
+
+        if (events.hasSubscribers()) {
+            events.submit(GameEvent.remove(current, x, y));
+        }
+        return true;
+    }
+
+    /**
+     * Clears the board and publishes the new snapshot.
+     */
+
+    public synchronized void newGame() {
+        game.getNewGame();
+        GameSnapshot current = publish();
+
+        if (events.hasSubscribers()) {
+            events.submit(GameEvent.newGame(current));
+        }
+    }
+
+    private GameSnapshot publish() {
+        GameSnapshot current = GameSnapshot.of(game, ++version);
+        snapshot.set(current);
+        return current;
+    }
+}
@@ -0,0 +1,47 @@
+package advanced.beginner.TicTacToe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event emitted by StrategyRegistry for every AI move while the
+ * event is enabled in a recording. The event duration is the time the strategy took.
+ */
+
+@Name("advanced.beginner.TicTacToe.MoveSearch")
+@Label("Move Search")
+@Category("TicTacToe")
+@Description("Move picked by a registered strategy")
+@StackTrace(false)
+public class MoveSearchEvent extends Event {
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Board Width")
+    int boardWidth;
+
+    @Label("Board Height")
+    int boardHeight;
+
+    @Label("Nodes Searched")
+    long nodes;
+
+    @Label("Nodes Per Second")
+    double nodesPerSecond;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    @Label("Cache Hit Rate")
+    @Percentage
+    double cacheHitRate;
+
+    @Label("Over Budget")
+    boolean overBudget;
+}
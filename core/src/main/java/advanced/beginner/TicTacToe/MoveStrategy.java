@@ -0,0 +1,41 @@
+package advanced.beginner.TicTacToe;
+
+/**
+ * A move selection algorithm that can be registered with a StrategyRegistry and picked
+ * by name. Implementations are long-lived and shared between games, so they must be
+ * safe to call from several threads at once. Any state a strategy keeps between moves
+ * (caches, tables, etc.) is the strategy's own responsibility to guard.
+ */
+
+public interface MoveStrategy {
+
+    /**
+     * Returns the name the strategy is registered under, e.g. "minimax".
+     */
+
+    String getName();
+
+    /**
+     * Returns how long a single call to getMove is expected to take, in nanoseconds.
+     * Moves slower than this are counted as over budget by the registry.
+     */
+
+    long getLatencyBudgetNanos();
+
+    /**
+     * Returns an int[] with the grid location of the move this strategy picks for the
+     * given player. The game must not be modified by another thread during the call.
+     */
+
+    int[] getMove(TicTacToe game, char player);
+
+    /**
+     * Same as getMove(game, player), additionally counting the search into the given
+     * metrics. Metrics is null when nobody is recording. Strategies that don't search
+     * can leave this as is.
+     */
+
+    default int[] getMove(TicTacToe game, char player, SearchMetrics metrics) {
+        return getMove(game, player);
+    }
+}
@@ -0,0 +1,102 @@
+package advanced.beginner.TicTacToe;
+
+/**
+ * Static helpers for a 3x3 TicTacToe board packed into an int: bits 0 - 8 hold X's
+ * pieces and bits 9 - 17 hold O's pieces. The square at getPieceAt(x, y) is bit
+ * x * 3 + y of each mask.
+ */
+
+public final class PackedBoard {
+
+    public final static int EMPTY = 0;
+    public final static int CELLS = 9;
+    public final static int FULL_MASK = (1 << CELLS) - 1;
+
+    private PackedBoard() {
+    }
+
+    /**
+     * Returns the packed form of a game board.
+     */
+
+    public static int pack(TicTacToe game) {
+        int board = EMPTY;
+        for (int x = 0; x < game.getHeight(); x++) {
+            for (int y = 0; y < game.getWidth(); y++) {
+                board = withPiece(board, x, y, game.getPieceAt(x, y));
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Returns a TicTacToe game with the pieces of a packed board on it.
+     */
+
+    public static TicTacToe unpack(int board) {
+        TicTacToe game = new TicTacToe();
+        for (int x = 0; x < game.getHeight(); x++) {
+            for (int y = 0; y < game.getWidth(); y++) {
+                char piece = getPieceAt(board, x, y);
+                if (piece != TicTacToe.NULL) {
+                    game.move(game, x, y, piece);
+                }
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Returns the mask of squares held by X.
+     */
+
+    public static int xMask(int board) {
+        return board & FULL_MASK;
+    }
+
+    /**
+     * Returns the mask of squares held by O.
+     */
+
+    public static int oMask(int board) {
+        return (board >>> CELLS) & FULL_MASK;
+    }
+
+    /**
+     * Returns number of pieces on the board.
+     */
+
+    public static int pieceCount(int board) {
+        return Integer.bitCount(xMask(board) | oMask(board));
+    }
+
+    /**
+     * Returns piece at given location.
+     */
+
+    public static char getPieceAt(int board, int x, int y) {
+        int bit = 1 << (x * 3 + y);
+        if ((xMask(board) & bit) != 0) {
+            return TicTacToe.X;
+        } else if ((oMask(board) & bit) != 0) {
+            return TicTacToe.O;
+        }
+        return TicTacToe.NULL;
+    }
+
+    /**
+     * Returns the board with the given square set to piece (X, O or NULL).
+     */
+
+    public static int withPiece(int board, int x, int y, char piece) {
+        int bit = 1 << (x * 3 + y);
+        board &= ~(bit | (bit << CELLS));
+
+        if (piece == TicTacToe.X) {
+            board |= bit;
+        } else if (piece == TicTacToe.O) {
+            board |= bit << CELLS;
+        }
+        return board;
+    }
+}
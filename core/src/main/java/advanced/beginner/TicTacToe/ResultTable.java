@@ -0,0 +1,198 @@
+package advanced.beginner.TicTacToe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped file of 2-bit game results, one per position index, as written by
+ * RetrogradeSolver. Results live in the OS page cache rather than on the heap, so a
+ * table with billions of entries costs a few hundred MB of disk and memory at most.
+ * Small tables can also be kept in direct memory with no file behind them.
+ *
+ * Several threads may set entries at once: results are packed 16 to an int, and each
+ * int is updated with compare-and-set.
+ *
+ * File layout is a 16 byte header (magic, width, height, k) followed by the packed
+ * results.
+ */
+
+public class ResultTable implements Closeable {
+
+    public final static int UNKNOWN = 0;
+    public final static int X_WIN = 1;
+    public final static int O_WIN = 2;
+    public final static int DRAW = 3;
+
+    private static final int MAGIC = 0x4D4E4B54; // "MNKT"
+    private static final int HEADER_BYTES = 16;
+    private static final int SEGMENT_BYTES = 1 << 30;
+    private static final VarHandle INTS =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel; // null for tables in memory
+    private final ByteBuffer[] segments;
+    private final long size;
+    private final int width;
+    private final int height;
+    private final int k;
+
+    private ResultTable(FileChannel channel, long size, int width, int height, int k,
+                        boolean writable) throws IOException {
+        this.channel = channel;
+        this.size = size;
+        this.width = width;
+        this.height = height;
+        this.k = k;
+
+        long bytes = dataBytes(size);
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE
+                : FileChannel.MapMode.READ_ONLY;
+        segments = new ByteBuffer[(int) ((bytes + SEGMENT_BYTES - 1) / SEGMENT_BYTES)];
+
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i * SEGMENT_BYTES;
+            int length = (int) Math.min(SEGMENT_BYTES, bytes - start);
+            segments[i] = channel == null ? ByteBuffer.allocateDirect(length)
+                    : channel.map(mode, HEADER_BYTES + start, length);
+        }
+    }
+
+    /**
+     * Creates a table in direct memory with room for the given number of results, all
+     * UNKNOWN.
+     */
+
+    public static ResultTable allocate(long size, int width, int height, int k) {
+        try {
+            return new ResultTable(null, size, width, height, k, true);
+        } catch (IOException e) {
+            throw new AssertionError("No file to fail on", e);
+        }
+    }
+
+    /**
+     * Creates (or overwrites) a table file with room for the given number of results,
+     * all UNKNOWN.
+     */
+
+    public static ResultTable create(Path file, long size, int width, int height, int k)
+            throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(width).putInt(height).putInt(k).flip();
+        channel.write(header, 0);
+
+        return new ResultTable(channel, size, width, height, k, true);
+    }
+
+    /**
+     * Opens an existing table file read only. Throws IOException if the file is not a
+     * result table.
+     */
+
+    public static ResultTable open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        header.flip();
+
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            channel.close();
+            throw new IOException("Not a result table: " + file);
+        }
+        int width = header.getInt();
+        int height = header.getInt();
+        int k = header.getInt();
+        long size = RetrogradeSolver.positionCount(width * height);
+
+        if (channel.size() < HEADER_BYTES + dataBytes(size)) {
+            channel.close();
+            throw new IOException("Result table is truncated: " + file);
+        }
+        return new ResultTable(channel, size, width, height, k, false);
+    }
+
+    /**
+     * Returns the result stored at a position index.
+     */
+
+    public int get(long index) {
+        long offset = (index >>> 4) * 4;
+        int word = (int) INTS.get(segments[(int) (offset / SEGMENT_BYTES)],
+                (int) (offset % SEGMENT_BYTES));
+        return (word >>> ((index & 15) * 2)) & 3;
+    }
+
+    /**
+     * Stores a result at a position index. Safe to call from several threads at once.
+     */
+
+    public void set(long index, int result) {
+        long offset = (index >>> 4) * 4;
+        ByteBuffer segment = segments[(int) (offset / SEGMENT_BYTES)];
+        int position = (int) (offset % SEGMENT_BYTES);
+        int shift = (int) (index & 15) * 2;
+
+        int word;
+        do {
+            word = (int) INTS.getVolatile(segment, position);
+        } while (!INTS.compareAndSet(segment, position, word,
+                (word & ~(3 << shift)) | (result << shift)));
+    }
+
+    /**
+     * Returns number of results the table holds.
+     */
+
+    public long size() {
+        return size;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Writes changes back to the file and closes it.
+     */
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            for (ByteBuffer segment : segments) {
+                if (!segment.isReadOnly()) {
+                    ((MappedByteBuffer) segment).force();
+                }
+            }
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns bytes needed for the given number of results, rounded up to whole ints.
+     */
+
+    private static long dataBytes(long size) {
+        return ((size + 15) / 16) * 4;
+    }
+}
@@ -0,0 +1,403 @@
+package advanced.beginner.TicTacToe;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Offline solver for m,n,k games (Tic-Tac-Toe played on a width x height board, first
+ * to get k in a row wins) with the same rules as TicTacToe: X moves first, players
+ * alternate, and a full board without a winner is a draw.
+ *
+ * Positions are bitboards, one int mask per player, and are numbered in base 3 (cell
+ * i contributes 3^i for X and 2 * 3^i for O). The solver works backwards from full
+ * boards: every move adds one piece, so all positions with p pieces only depend on
+ * positions with p + 1 pieces, and each layer is solved in parallel once the layer
+ * above is done. Only the canonical position of each symmetry class (rotations and
+ * reflections of the board) is solved and stored.
+ *
+ * Results go to a ResultTable, 2 bits per position index, so 5x4 (3^20 indices) needs
+ * about 870 MB of file. Boards of more than 20 cells are not supported.
+ *
+ * Cell i is row i / width, column i % width; for TicTacToe that is getPieceAt(row,
+ * column).
+ */
+
+public class RetrogradeSolver {
+
+    public final static int MAX_CELLS = 20;
+
+    private final int width;
+    private final int height;
+    private final int k;
+    private final int cells;
+    private final int[] lines;
+    private final int[][][] symmetries; // [symmetry][byte of mask][byte value] -> mask
+    private final long[][] ternary; // [byte of mask][byte value] -> base 3 digits
+
+    /**
+     * Creates a solver for a width x height board where k in a row wins.
+     */
+
+    public RetrogradeSolver(int width, int height, int k) {
+        if (width < 1 || height < 1 || width * height > MAX_CELLS) {
+            throw new IllegalArgumentException("Board must have 1 to " + MAX_CELLS
+                    + " cells: " + width + "x" + height);
+        }
+        if (k < 1 || k > Math.max(width, height)) {
+            throw new IllegalArgumentException("k must fit on the board: " + k);
+        }
+        this.width = width;
+        this.height = height;
+        this.k = k;
+        this.cells = width * height;
+        this.lines = initializeLines();
+        this.symmetries = initializeSymmetries();
+        this.ternary = initializeTernary();
+    }
+
+    /**
+     * Returns number of position indices on a board with the given number of cells.
+     */
+
+    public static long positionCount(int cells) {
+        long count = 1;
+        for (int i = 0; i < cells; i++) {
+            count *= 3;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a mask for every run of k cells in a row, column or diagonal.
+     */
+
+    private int[] initializeLines() {
+        ArrayList<Integer> found = new ArrayList<>();
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                for (int[] direction : directions) {
+                    int endRow = row + direction[0] * (k - 1);
+                    int endCol = col + direction[1] * (k - 1);
+
+                    if (endRow < 0 || endRow >= height || endCol < 0 || endCol >= width) {
+                        continue;
+                    }
+                    int mask = 0;
+                    for (int i = 0; i < k; i++) {
+                        mask |= 1 << cell(row + direction[0] * i, col + direction[1] * i);
+                    }
+                    if (!found.contains(mask)) {
+                        found.add(mask);
+                    }
+                }
+            }
+        }
+        return found.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Builds byte lookup tables that move every bit of a mask to its place under each
+     * symmetry of the board: 4 for rectangles, 8 for squares.
+     */
+
+    private int[][][] initializeSymmetries() {
+        ArrayList<int[]> permutations = new ArrayList<>();
+
+        for (int s = 0; s < (width == height ? 8 : 4); s++) {
+            int[] permutation = new int[cells];
+            for (int row = 0; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    int r = (s & 1) != 0 ? height - 1 - row : row; // flip vertically
+                    int c = (s & 2) != 0 ? width - 1 - col : col; // flip horizontally
+                    // transpose (square boards only)
+                    permutation[cell(row, col)] = (s & 4) != 0 ? cell(c, r) : cell(r, c);
+                }
+            }
+            permutations.add(permutation);
+        }
+
+        int chunks = (cells + 7) / 8;
+        int[][][] tables = new int[permutations.size()][chunks][256];
+
+        for (int s = 0; s < permutations.size(); s++) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                for (int value = 0; value < 256; value++) {
+                    int mask = 0;
+                    for (int bit = 0; bit < 8 && chunk * 8 + bit < cells; bit++) {
+                        if ((value & (1 << bit)) != 0) {
+                            mask |= 1 << permutations.get(s)[chunk * 8 + bit];
+                        }
+                    }
+                    tables[s][chunk][value] = mask;
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Builds byte lookup tables from a bit mask to the sum of 3^i over its set bits.
+     */
+
+    private long[][] initializeTernary() {
+        int chunks = (cells + 7) / 8;
+        long[][] tables = new long[chunks][256];
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            for (int value = 0; value < 256; value++) {
+                long sum = 0;
+                for (int bit = 0; bit < 8 && chunk * 8 + bit < cells; bit++) {
+                    if ((value & (1 << bit)) != 0) {
+                        sum += positionCount(chunk * 8 + bit);
+                    }
+                }
+                tables[chunk][value] = sum;
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Solves every position and writes the results to the given file, which is
+     * created or overwritten.
+     */
+
+    public ResultTable solve(Path file) throws IOException {
+        ResultTable table = ResultTable.create(file, positionCount(cells), width, height, k);
+        solve(table);
+        return table;
+    }
+
+    /**
+     * Solves every position into a table in memory. Only sensible for small boards.
+     */
+
+    public ResultTable solve() {
+        ResultTable table = ResultTable.allocate(positionCount(cells), width, height, k);
+        solve(table);
+        return table;
+    }
+
+    /**
+     * Solves every position into the given table, one layer of piece count at a time
+     * starting from full boards.
+     */
+
+    public void solve(ResultTable table) {
+        for (int pieces = cells; pieces >= 0; pieces--) {
+            int layer = pieces;
+            IntStream.range(0, 1 << cells)
+                    .parallel()
+                    .filter(occupied -> Integer.bitCount(occupied) == layer)
+                    .forEach(occupied -> solveOccupied(table, occupied, layer));
+        }
+    }
+
+    /**
+     * Solves every canonical position whose pieces sit exactly on the occupied cells.
+     */
+
+    private void solveOccupied(ResultTable table, int occupied, int pieces) {
+        int xCount = (pieces + 1) / 2; // X moves first
+
+        // walk every way of picking xCount of the pieces, then deposit onto occupied.
+        int pick = (1 << xCount) - 1;
+        while (pick < (1 << pieces)) {
+            int x = deposit(pick, occupied);
+            int o = occupied & ~x;
+            long index = index(x, o);
+
+            if (isCanonical(x, o, index)) {
+                int result = evaluate(table, x, o, pieces);
+                if (result != ResultTable.UNKNOWN) {
+                    table.set(index, result);
+                }
+            }
+
+            if (pick == 0) {
+                break;
+            }
+            // next bigger number with the same bit count (Gosper's hack).
+            int lowest = pick & -pick;
+            int ripple = pick + lowest;
+            pick = (((ripple ^ pick) >>> 2) / lowest) | ripple;
+        }
+    }
+
+    /**
+     * Returns the result of a position whose successors have all been solved, or
+     * UNKNOWN if the position cannot come up in a game.
+     */
+
+    private int evaluate(ResultTable table, int x, int o, int pieces) {
+        boolean xTurn = pieces % 2 == 0;
+        boolean xWon = hasLine(x);
+        boolean oWon = hasLine(o);
+
+        // only the player who just moved can have a line.
+        if (xWon) {
+            return xTurn || oWon ? ResultTable.UNKNOWN : ResultTable.X_WIN;
+        }
+        if (oWon) {
+            return xTurn ? ResultTable.O_WIN : ResultTable.UNKNOWN;
+        }
+        if (pieces == cells) {
+            return ResultTable.DRAW;
+        }
+
+        int win = xTurn ? ResultTable.X_WIN : ResultTable.O_WIN;
+        int loss = xTurn ? ResultTable.O_WIN : ResultTable.X_WIN;
+        int best = loss;
+        int empty = ~(x | o) & ((1 << cells) - 1);
+
+        while (empty != 0) {
+            int move = empty & -empty;
+            empty ^= move;
+
+            int result = xTurn ? table.get(canonicalIndex(x | move, o))
+                    : table.get(canonicalIndex(x, o | move));
+            if (result == win) {
+                return win;
+            } else if (result == ResultTable.DRAW) {
+                best = ResultTable.DRAW;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns true if any player mask covers a whole line.
+     */
+
+    public boolean hasLine(int mask) {
+        for (int line : lines) {
+            if ((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the base 3 position index of a pair of player masks.
+     */
+
+    public long index(int x, int o) {
+        long index = 0;
+        for (int chunk = 0; chunk < ternary.length; chunk++) {
+            index += ternary[chunk][(x >>> (chunk * 8)) & 0xFF]
+                    + 2 * ternary[chunk][(o >>> (chunk * 8)) & 0xFF];
+        }
+        return index;
+    }
+
+    /**
+     * Returns the smallest position index among all symmetric images of a position.
+     * Results are stored under this index.
+     */
+
+    public long canonicalIndex(int x, int o) {
+        long best = index(x, o);
+        for (int s = 1; s < symmetries.length; s++) {
+            best = Math.min(best, index(transform(s, x), transform(s, o)));
+        }
+        return best;
+    }
+
+    private boolean isCanonical(int x, int o, long index) {
+        for (int s = 1; s < symmetries.length; s++) {
+            if (index(transform(s, x), transform(s, o)) < index) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int transform(int symmetry, int mask) {
+        int[][] table = symmetries[symmetry];
+        int result = 0;
+        for (int chunk = 0; chunk < table.length; chunk++) {
+            result |= table[chunk][(mask >>> (chunk * 8)) & 0xFF];
+        }
+        return result;
+    }
+
+    /**
+     * Spreads the low bits of bits onto the set bits of mask, lowest first.
+     */
+
+    private static int deposit(int bits, int mask) {
+        int result = 0;
+        while (mask != 0) {
+            int lowest = mask & -mask;
+            if ((bits & 1) != 0) {
+                result |= lowest;
+            }
+            bits >>>= 1;
+            mask ^= lowest;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cell number of a row and column.
+     */
+
+    public int cell(int row, int col) {
+        return row * width + col;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Solves the board given on the command line: width height k file.
+     */
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("usage: RetrogradeSolver width height k file");
+            System.exit(2);
+        }
+        RetrogradeSolver solver = new RetrogradeSolver(Integer.parseInt(args[0]),
+                Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        Path file = Paths.get(args[3]);
+
+        long start = System.nanoTime();
+        try (ResultTable table = solver.solve(file)) {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            LongAdder[] counts = {new LongAdder(), new LongAdder(), new LongAdder(),
+                    new LongAdder()};
+            IntStream.range(0, (int) ((table.size() + 15) / 16)).parallel()
+                    .forEach(block -> {
+                        for (long i = block * 16L; i < Math.min(table.size(),
+                                block * 16L + 16); i++) {
+                            counts[table.get(i)].increment();
+                        }
+                    });
+
+            String[] names = {"unknown", "X wins", "O wins", "draw"};
+            System.out.println(solver.getWidth() + "x" + solver.getHeight() + " k="
+                    + solver.getK() + " solved in " + millis + " ms: "
+                    + names[table.get(0)] + " with perfect play");
+            System.out.println("canonical positions: " + counts[1].sum() + " X wins, "
+                    + counts[2].sum() + " O wins, " + counts[3].sum() + " draws");
+        }
+    }
+}
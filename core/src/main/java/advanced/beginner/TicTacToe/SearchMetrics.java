@@ -0,0 +1,72 @@
+package advanced.beginner.TicTacToe;
+
+/**
+ * Counters filled in by a search while it picks a single move: positions visited,
+ * deepest ply reached and transposition cache lookups. One SearchMetrics belongs to one
+ * search on one thread, so the counters are plain fields.
+ *
+ * Searches are handed null instead of a SearchMetrics when nobody is recording, and
+ * should skip counting entirely in that case.
+ */
+
+public class SearchMetrics {
+
+    private long nodes;
+    private int maxDepth;
+    private long cacheLookups;
+    private long cacheHits;
+
+    /**
+     * Counts one visited position at the given depth below the root.
+     */
+
+    public void visit(int depth) {
+        nodes++;
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    /**
+     * Counts one cache lookup, and whether it found an entry.
+     */
+
+    public void cacheLookup(boolean hit) {
+        cacheLookups++;
+        if (hit) {
+            cacheHits++;
+        }
+    }
+
+    /**
+     * Returns number of positions visited.
+     */
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns deepest ply reached below the root.
+     */
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns number of cache lookups.
+     */
+
+    public long getCacheLookups() {
+        return cacheLookups;
+    }
+
+    /**
+     * Returns number of cache lookups that found an entry.
+     */
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+}
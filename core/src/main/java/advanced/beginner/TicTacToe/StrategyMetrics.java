@@ -0,0 +1,83 @@
+package advanced.beginner.TicTacToe;
+
+/**
+ * StrategyMetricsMXBean implementation that reads straight from a StrategyRegistry.
+ * Unknown keys read as zero.
+ */
+
+public class StrategyMetrics implements StrategyMetricsMXBean {
+
+    private static final StrategyStats EMPTY = new StrategyStats();
+
+    private final StrategyRegistry registry;
+
+    public StrategyMetrics(StrategyRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String[] getStatsKeys() {
+        return registry.getStatsKeys().toArray(new String[0]);
+    }
+
+    @Override
+    public boolean isMetricsEnabled() {
+        return registry.isMetricsEnabled();
+    }
+
+    @Override
+    public void setMetricsEnabled(boolean enabled) {
+        registry.setMetricsEnabled(enabled);
+    }
+
+    @Override
+    public long getMoveCount(String key) {
+        return stats(key).getHistogram().getCount();
+    }
+
+    @Override
+    public double getLatencyPercentileMillis(String key, double percentile) {
+        return stats(key).getHistogram().getPercentileNanos(percentile) / 1e6;
+    }
+
+    @Override
+    public double getMeanLatencyMillis(String key) {
+        return stats(key).getHistogram().getMeanNanos() / 1e6;
+    }
+
+    @Override
+    public long getOverBudgetCount(String strategy) {
+        return registry.getNames().contains(strategy)
+                ? registry.getOverBudgetCount(strategy) : 0;
+    }
+
+    @Override
+    public long getNodesSearched(String key) {
+        return stats(key).getNodesSearched();
+    }
+
+    @Override
+    public double getNodesPerSecond(String key) {
+        return stats(key).getNodesPerSecond();
+    }
+
+    @Override
+    public int getMaxDepth(String key) {
+        return stats(key).getMaxDepth();
+    }
+
+    @Override
+    public double getCacheHitRate(String key) {
+        return stats(key).getCacheHitRate();
+    }
+
+    @Override
+    public void resetStats() {
+        registry.resetStats();
+    }
+
+    private StrategyStats stats(String key) {
+        StrategyStats stats = registry.getStatsByKey(key);
+        return stats == null ? EMPTY : stats;
+    }
+}
@@ -0,0 +1,33 @@
+package advanced.beginner.TicTacToe;
+
+/**
+ * JMX view of the totals recorded by a StrategyRegistry. Keys are the ones returned by
+ * getStatsKeys: a strategy name, or "name@WxH" for a strategy on one board size.
+ */
+
+public interface StrategyMetricsMXBean {
+
+    String[] getStatsKeys();
+
+    boolean isMetricsEnabled();
+
+    void setMetricsEnabled(boolean enabled);
+
+    long getMoveCount(String key);
+
+    double getLatencyPercentileMillis(String key, double percentile);
+
+    double getMeanLatencyMillis(String key);
+
+    long getOverBudgetCount(String strategy);
+
+    long getNodesSearched(String key);
+
+    double getNodesPerSecond(String key);
+
+    int getMaxDepth(String key);
+
+    double getCacheHitRate(String key);
+
+    void resetStats();
+}
@@ -0,0 +1,303 @@
+package advanced.beginner.TicTacToe;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Registry of long-lived MoveStrategy instances, looked up by name. Every move asked of
+ * the registry is timed, and the latency is recorded in a histogram per strategy and
+ * per strategy and board size. Each strategy remembers the stats of the board size it
+ * last played on, so recording a move doesn't build keys or touch a shared map.
+ *
+ * Search counters (nodes, depth, cache hits) cost a little more to collect, so they
+ * are only gathered while metrics are enabled or the MoveSearchEvent is enabled in a
+ * Flight Recorder recording. The event class is not even loaded until Flight Recorder
+ * has been started, which keeps it out of the startup path of headless processes.
+ * Totals can be read over JMX once registerMBean has been called.
+ *
+ * The default registry contains, in order of difficulty: "random", "winning-move",
+ * "win-block" and "minimax", followed by "tablebase" and "game-tree". More strategies
+ * can be registered at any time.
+ */
+
+public class StrategyRegistry {
+
+    private static final StrategyRegistry DEFAULT = createDefault();
+
+    private final Map<String, Registration> strategies = new ConcurrentHashMap<>();
+    private final List<String> names = new CopyOnWriteArrayList<>();
+    private volatile boolean metricsEnabled = false;
+
+    /**
+     * Returns the shared registry containing the built in strategies.
+     */
+
+    public static StrategyRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    private static StrategyRegistry createDefault() {
+        StrategyRegistry registry = new StrategyRegistry();
+        registry.register(AIStrategy.random());
+        registry.register(AIStrategy.winningMove());
+        registry.register(AIStrategy.winBlock());
+        registry.register(AIStrategy.minimax());
+        registry.register(new TablebaseStrategy());
+        registry.register(new GameTreeStrategy());
+        return registry;
+    }
+
+    /**
+     * Adds a strategy to the registry. Throws IllegalArgumentException if a strategy
+     * with the same name is already registered, or if the name contains '@', which
+     * separates the name from the board size in stats keys.
+     */
+
+    public void register(MoveStrategy strategy) {
+        if (strategy.getName().indexOf('@') >= 0) {
+            throw new IllegalArgumentException("Strategy name can't contain '@': "
+                    + strategy.getName());
+        }
+        if (strategies.putIfAbsent(strategy.getName(), new Registration(strategy)) != null) {
+            throw new IllegalArgumentException("Strategy already registered: "
+                    + strategy.getName());
+        }
+        names.add(strategy.getName());
+    }
+
+    /**
+     * Returns the strategy registered under the given name. Throws
+     * IllegalArgumentException if there is none.
+     */
+
+    public MoveStrategy get(String name) {
+        return registration(name).strategy;
+    }
+
+    /**
+     * Returns the names of all registered strategies, in registration order.
+     */
+
+    public List<String> getNames() {
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Returns the move picked by the named strategy, recording how long it took.
+     */
+
+    public int[] getMove(String name, TicTacToe game, char player) {
+        Registration registration = registration(name);
+        MoveStrategy strategy = registration.strategy;
+        MoveSearchEvent event = FlightRecorder.isInitialized() ? new MoveSearchEvent() : null;
+        // only pay for search counters when someone is looking at them.
+        SearchMetrics metrics = metricsEnabled || (event != null && event.isEnabled())
+                ? new SearchMetrics() : null;
+
+        if (event != null) {
+            event.begin();
+        }
+        long start = System.nanoTime();
+        int[] move = strategy.getMove(game, player, metrics);
+        long elapsed = System.nanoTime() - start;
+        if (event != null) {
+            event.end();
+        }
+
+        StrategyStats total = registration.total;
+        StrategyStats bySize = registration.getStats(game.getWidth(), game.getHeight());
+        total.recordMove(elapsed);
+        bySize.recordMove(elapsed);
+
+        if (metrics != null) {
+            total.recordSearch(metrics, elapsed);
+            bySize.recordSearch(metrics, elapsed);
+
+            if (event != null && event.shouldCommit()) {
+                event.strategy = name;
+                event.boardWidth = game.getWidth();
+                event.boardHeight = game.getHeight();
+                event.nodes = metrics.getNodes();
+                event.nodesPerSecond = elapsed == 0 ? 0 : metrics.getNodes() * 1e9 / elapsed;
+                event.maxDepth = metrics.getMaxDepth();
+                event.cacheHitRate = metrics.getCacheLookups() == 0 ? 0
+                        : (double) metrics.getCacheHits() / metrics.getCacheLookups();
+                event.overBudget = elapsed > strategy.getLatencyBudgetNanos();
+                event.commit();
+            }
+        }
+        return move;
+    }
+
+    /**
+     * Returns the totals of the named strategy over all board sizes.
+     */
+
+    public StrategyStats getStats(String name) {
+        return registration(name).total;
+    }
+
+    /**
+     * Returns the totals of the named strategy on boards of the given size.
+     */
+
+    public StrategyStats getStats(String name, int width, int height) {
+        return registration(name).getStats(width, height);
+    }
+
+    /**
+     * Returns the keys of all recorded totals: strategy names, plus "name@WxH" for each
+     * board size a strategy has played on.
+     */
+
+    public List<String> getStatsKeys() {
+        List<String> keys = new ArrayList<>();
+        for (String name : names) {
+            keys.add(name);
+            for (String size : strategies.get(name).bySize.keySet()) {
+                keys.add(name + "@" + size);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the totals stored under a key from getStatsKeys, or null if there are
+     * none.
+     */
+
+    public StrategyStats getStatsByKey(String key) {
+        int at = key.indexOf('@');
+        Registration registration = strategies.get(at < 0 ? key : key.substring(0, at));
+
+        if (registration == null) {
+            return null;
+        }
+        return at < 0 ? registration.total : registration.bySize.get(key.substring(at + 1));
+    }
+
+    /**
+     * Returns the latency histogram of the named strategy.
+     */
+
+    public LatencyHistogram getHistogram(String name) {
+        return getStats(name).getHistogram();
+    }
+
+    /**
+     * Returns how many moves of the named strategy took longer than its latency budget.
+     * Read from the latency histogram, so moves less than about 6% over the budget may
+     * not be counted; see LatencyHistogram.getCountAbove.
+     */
+
+    public long getOverBudgetCount(String name) {
+        return getHistogram(name).getCountAbove(get(name).getLatencyBudgetNanos());
+    }
+
+    /**
+     * Returns true if search counters are collected for every move.
+     */
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * Turns collection of search counters on or off. Latency histograms are always
+     * recorded.
+     */
+
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * Clears all recorded totals.
+     */
+
+    public void resetStats() {
+        for (Registration registration : strategies.values()) {
+            registration.total.reset();
+            for (StrategyStats stat : registration.bySize.values()) {
+                stat.reset();
+            }
+        }
+    }
+
+    /**
+     * Registers a StrategyMetricsMXBean for this registry with the platform MBean
+     * server, under advanced.beginner.TicTacToe:type=StrategyMetrics,name=(given name).
+     */
+
+    public void registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(
+                    "advanced.beginner.TicTacToe:type=StrategyMetrics,name="
+                    + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new StrategyMetrics(this), objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register MBean " + name, e);
+        }
+    }
+
+    private Registration registration(String name) {
+        Registration registration = strategies.get(name);
+
+        if (registration == null) {
+            throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+        return registration;
+    }
+
+    /**
+     * A registered strategy with its totals, overall and by "WxH" board size.
+     */
+
+    private static final class Registration {
+
+        private final MoveStrategy strategy;
+        private final StrategyStats total = new StrategyStats();
+        private final Map<String, StrategyStats> bySize = new ConcurrentHashMap<>();
+        private volatile SizedStats lastSize; // null until a move is recorded
+
+        Registration(MoveStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        StrategyStats getStats(int width, int height) {
+            SizedStats last = lastSize;
+            if (last != null && last.width == width && last.height == height) {
+                return last.stats;
+            }
+            StrategyStats stats = bySize.computeIfAbsent(width + "x" + height,
+                    size -> new StrategyStats());
+            lastSize = new SizedStats(width, height, stats);
+            return stats;
+        }
+    }
+
+    /**
+     * The stats of one board size, cached by a Registration.
+     */
+
+    private static final class SizedStats {
+
+        private final int width;
+        private final int height;
+        private final StrategyStats stats;
+
+        SizedStats(int width, int height, StrategyStats stats) {
+            this.width = width;
+            this.height = height;
+            this.stats = stats;
+        }
+    }
+}
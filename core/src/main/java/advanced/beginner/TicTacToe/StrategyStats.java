@@ -0,0 +1,107 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals for one strategy (or one strategy on one board size): a latency
+ * histogram of every move, plus search counters summed over the moves that were made
+ * while detailed metrics were being recorded.
+ */
+
+public class StrategyStats {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder cacheLookups = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    /**
+     * Records the latency of a move.
+     */
+
+    public void recordMove(long nanos) {
+        histogram.recordNanos(nanos);
+    }
+
+    /**
+     * Adds the counters of a finished search that took the given time.
+     */
+
+    public void recordSearch(SearchMetrics metrics, long nanos) {
+        searches.increment();
+        searchNanos.add(nanos);
+        nodes.add(metrics.getNodes());
+        cacheLookups.add(metrics.getCacheLookups());
+        cacheHits.add(metrics.getCacheHits());
+        maxDepth.accumulateAndGet(metrics.getMaxDepth(), Math::max);
+    }
+
+    /**
+     * Returns the latency histogram of all moves.
+     */
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Returns number of moves that recorded search metrics.
+     */
+
+    public long getSearchCount() {
+        return searches.sum();
+    }
+
+    /**
+     * Returns total positions visited by recorded searches.
+     */
+
+    public long getNodesSearched() {
+        return nodes.sum();
+    }
+
+    /**
+     * Returns positions visited per second of recorded search time.
+     */
+
+    public double getNodesPerSecond() {
+        long nanos = searchNanos.sum();
+        return nanos == 0 ? 0 : nodes.sum() * 1e9 / nanos;
+    }
+
+    /**
+     * Returns deepest ply reached by any recorded search.
+     */
+
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * Returns fraction (0 - 1) of cache lookups that found an entry, or 0 if the
+     * strategy has no cache.
+     */
+
+    public double getCacheHitRate() {
+        long lookups = cacheLookups.sum();
+        return lookups == 0 ? 0 : (double) cacheHits.sum() / lookups;
+    }
+
+    /**
+     * Clears all totals.
+     */
+
+    public void reset() {
+        histogram.reset();
+        searches.reset();
+        searchNanos.reset();
+        nodes.reset();
+        cacheLookups.reset();
+        cacheHits.reset();
+        maxDepth.set(0);
+    }
+}
@@ -0,0 +1,131 @@
+package advanced.beginner.TicTacToe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * MoveStrategy that plays perfectly by looking every position up in a table built by
+ * RetrogradeSolver. The table is loaded on first use, from the file named by the
+ * "tictactoe.tablebase" system property if it is set, otherwise it is solved on the
+ * spot into memory (3x3 takes a few milliseconds).
+ *
+ * Among equally good moves the first one found is played. The table stores results,
+ * not distance to the end of the game, so quicker wins are not preferred. The table
+ * only holds positions reached by X and O taking turns, so asking for a move for the
+ * player whose turn it isn't, by the piece counts, throws IllegalArgumentException.
+ */
+
+public class TablebaseStrategy implements MoveStrategy {
+
+    public final static String FILE_PROPERTY = "tictactoe.tablebase";
+
+    private volatile Tablebase tablebase;
+
+    @Override
+    public String getName() {
+        return "tablebase";
+    }
+
+    @Override
+    public long getLatencyBudgetNanos() {
+        return 1_000_000;
+    }
+
+    @Override
+    public int[] getMove(TicTacToe game, char player) {
+        int pieces = PackedBoard.pieceCount(PackedBoard.pack(game));
+        char turn = pieces % 2 == 0 ? TicTacToe.X : TicTacToe.O;
+        if (player != turn) {
+            throw new IllegalArgumentException("It is " + turn + "'s turn, not "
+                    + player + "'s");
+        }
+        Tablebase base = getTablebase();
+        int win = player == TicTacToe.X ? ResultTable.X_WIN : ResultTable.O_WIN;
+        int[] bestMove = null;
+        int bestRank = -1;
+
+        for (int[] move : new ArrayList<>(game.getMoves())) {
+            TicTacToe newGame = new TicTacToe(game);
+            newGame.move(newGame, move[0], move[1], player);
+
+            int result = base.getResult(newGame);
+            int rank = result == win ? 2 : result == ResultTable.DRAW ? 1 : 0;
+            if (rank > bestRank) {
+                bestMove = move;
+                bestRank = rank;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Returns the table, loading or solving it on first use.
+     */
+
+    private Tablebase getTablebase() {
+        Tablebase base = tablebase;
+        if (base == null) {
+            synchronized (this) {
+                base = tablebase;
+                if (base == null) {
+                    base = loadTablebase();
+                    tablebase = base;
+                }
+            }
+        }
+        return base;
+    }
+
+    private static Tablebase loadTablebase() {
+        RetrogradeSolver solver = new RetrogradeSolver(3, 3, 3);
+        try {
+            String property = System.getProperty(FILE_PROPERTY);
+            if (property != null) {
+                return new Tablebase(solver, ResultTable.open(Paths.get(property)));
+            }
+            return new Tablebase(solver, solver.solve());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load tablebase", e);
+        }
+    }
+
+    /**
+     * Solved 3x3 table plus the solver that knows how to index it.
+     */
+
+    private static class Tablebase {
+
+        private final RetrogradeSolver solver;
+        private final ResultTable table;
+
+        Tablebase(RetrogradeSolver solver, ResultTable table) {
+            if (table.getWidth() != 3 || table.getHeight() != 3 || table.getK() != 3) {
+                throw new IllegalArgumentException("Tablebase is not 3x3 with k=3");
+            }
+            this.solver = solver;
+            this.table = table;
+        }
+
+        /**
+         * Returns the result of a game with perfect play from here on.
+         */
+
+        int getResult(TicTacToe game) {
+            int x = 0;
+            int o = 0;
+            for (int row = 0; row < game.getHeight(); row++) {
+                for (int col = 0; col < game.getWidth(); col++) {
+                    char piece = game.getPieceAt(row, col);
+                    if (piece == TicTacToe.X) {
+                        x |= 1 << solver.cell(row, col);
+                    } else if (piece == TicTacToe.O) {
+                        o |= 1 << solver.cell(row, col);
+                    }
+                }
+            }
+            return table.get(solver.canonicalIndex(x, o));
+        }
+    }
+}
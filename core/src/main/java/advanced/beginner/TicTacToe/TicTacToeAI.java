@@ -16,6 +16,7 @@ public class TicTacToeAI {
     private ArrayList<int[]> movesAvailable;
     private final ThreadLocalRandom random = ThreadLocalRandom.current();
     private final TicTacToe game;
+    private SearchMetrics metrics;
 
     /**
      * Constructor to take information from TicTacToe game.
@@ -25,6 +26,14 @@ public class TicTacToeAI {
         movesAvailable = game.getMoves();
     }
 
+    /**
+     * Sets the metrics that minimax counts visited positions into. Null (the default)
+     * turns counting off.
+     */
+    public void setMetrics(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Returns an int[] with grid location of a random legal move.
      */
@@ -152,6 +161,11 @@ public class TicTacToeAI {
      */
 
     public int minimaxScore(TicTacToe game, char playerToMove, char playerToOptimize) {
+        if (metrics != null) {
+            // depth is measured from the position getBestMove was asked about.
+            metrics.visit(game.getTurnCount() - this.game.getTurnCount());
+        }
+
         // returns the winner of the game or NULL if no one has won yet.
         char winner = game.playerWin();
 
@@ -0,0 +1,188 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.Scanner;
+
+/**
+ * Headless entry point of the core module. Plays against a registered strategy on
+ * the console, or answers a single position and exits, which is what servers and
+ * scripts use. Nothing is loaded that the chosen command doesn't need: the tablebase,
+ * for example, is only built when the "tablebase" strategy makes its first move.
+ *
+ * Boards are given as 9 characters of X, O and -, row by row from the top left.
+ */
+
+public class TicTacToeCLI {
+
+    private static final String USAGE = String.join("\n",
+            "usage: TicTacToeCLI [--strategy NAME] [--move BOARD | --list | --train]",
+            "  --strategy NAME  AI strategy to use (default tablebase)",
+            "  --move BOARD     print the AI's move as \"row col\" for a board such as",
+            "                   X---O---- and exit",
+            "  --list           print the names of all strategies",
+            "  --train          play each strategy against itself once (AppCDS training)",
+            "With no command, play X against the AI, entering moves as \"row col\".");
+
+    public static void main(String[] args) {
+        String strategy = "tablebase";
+        String command = "play";
+        String board = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--strategy":
+                    strategy = argument(args, ++i);
+                    break;
+                case "--move":
+                    command = "move";
+                    board = argument(args, ++i);
+                    break;
+                case "--list":
+                case "--train":
+                    command = args[i].substring(2);
+                    break;
+                default:
+                    usage("Unknown option: " + args[i]);
+            }
+        }
+
+        StrategyRegistry registry = StrategyRegistry.getDefault();
+        try {
+            registry.get(strategy);
+
+            switch (command) {
+                case "move":
+                    TicTacToe game = parseBoard(board);
+                    if (game.gameOver()) {
+                        usage("Game is already over");
+                    }
+                    int[] move = registry.getMove(strategy, game, game.getTurn());
+                    System.out.println(move[0] + " " + move[1]);
+                    break;
+                case "list":
+                    registry.getNames().forEach(System.out::println);
+                    break;
+                case "train":
+                    for (String name : registry.getNames()) {
+                        playItself(registry, name);
+                    }
+                    break;
+                default:
+                    play(registry, strategy);
+            }
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a game with the pieces of a 9 character board string. Throws
+     * IllegalArgumentException if the string is not a board, or if the piece counts
+     * can't come from X and O taking turns with X first.
+     */
+
+    public static TicTacToe parseBoard(String board) {
+        if (board.length() != 9) {
+            throw new IllegalArgumentException("Board must be 9 characters: " + board);
+        }
+        int packed = PackedBoard.EMPTY;
+
+        for (int i = 0; i < 9; i++) {
+            char piece = Character.toUpperCase(board.charAt(i));
+            if (piece != TicTacToe.X && piece != TicTacToe.O && piece != TicTacToe.NULL) {
+                throw new IllegalArgumentException("Not a piece: " + board.charAt(i));
+            }
+            packed = PackedBoard.withPiece(packed, i / 3, i % 3, piece);
+        }
+
+        int xCount = Integer.bitCount(PackedBoard.xMask(packed));
+        int oCount = Integer.bitCount(PackedBoard.oMask(packed));
+        if (oCount != xCount && oCount != xCount - 1) {
+            throw new IllegalArgumentException("Board needs as many O's as X's, or one "
+                    + "fewer: " + board);
+        }
+        return PackedBoard.unpack(packed);
+    }
+
+    /**
+     * Plays X on the console against the given strategy.
+     */
+
+    private static void play(StrategyRegistry registry, String strategy) {
+        TicTacToe game = new TicTacToe();
+        Scanner input = new Scanner(System.in);
+
+        while (!game.gameOver()) {
+            System.out.println(game);
+            System.out.print("Your move (row col): ");
+            if (!input.hasNextLine()) {
+                return;
+            }
+            int[] square = parseSquare(input.nextLine());
+            if (square == null) {
+                System.out.println("Enter a row and a column, such as 1 2.");
+                continue;
+            }
+            int x = square[0];
+            int y = square[1];
+
+            if (x < 0 || x > 2 || y < 0 || y > 2 || game.getPieceAt(x, y) != TicTacToe.NULL) {
+                System.out.println("That square isn't free.");
+                continue;
+            }
+            game.move(game, x, y, TicTacToe.X);
+
+            if (!game.gameOver()) {
+                int[] move = registry.getMove(strategy, game, TicTacToe.O);
+                game.move(game, move[0], move[1], TicTacToe.O);
+            }
+        }
+        System.out.println(game);
+        System.out.println(game.gameDraw() ? "The game is a draw" : game.playerWin() + " wins!");
+    }
+
+    /**
+     * Returns the row and column of a line such as "1 2", or null unless the line is
+     * exactly two integers.
+     */
+
+    private static int[] parseSquare(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        if (tokens.length != 2) {
+            return null;
+        }
+        try {
+            return new int[]{Integer.parseInt(tokens[0]), Integer.parseInt(tokens[1])};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Plays one game of a strategy against itself.
+     */
+
+    private static void playItself(StrategyRegistry registry, String strategy) {
+        TicTacToe game = new TicTacToe();
+        // start from a corner so minimax doesn't spend its time on the empty board.
+        game.move(game, 0, 0, TicTacToe.X);
+
+        while (!game.gameOver()) {
+            char player = game.getTurn();
+            int[] move = registry.getMove(strategy, game, player);
+            game.move(game, move[0], move[1], player);
+        }
+    }
+
+    private static String argument(String[] args, int i) {
+        if (i >= args.length) {
+            usage("Missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+}
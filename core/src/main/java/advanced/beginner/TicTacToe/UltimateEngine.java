@@ -0,0 +1,494 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.SplittableRandom;
+
+/**
+ * Alpha-beta search engine for UltimateTicTacToe. The position is held as bitboards:
+ * one PackedBoard int per small board, plus 9 bit masks of the small boards won by X,
+ * won by O, and filled up without a winner. Moves are numbered board * 9 + square,
+ * with board = boardX * 3 + boardY and square = x * 3 + y.
+ *
+ * The search is iterative deepening negamax with a transposition table keyed by
+ * Zobrist hashes, and stops when the time budget runs out. Moves are made and unmade
+ * in place and generated into per-ply arrays, so nothing is allocated while searching.
+ * Win and loss scores count plies from the root so quicker wins score higher; the
+ * table stores them counted from the entry's own position instead, so an entry stays
+ * right when the position is reached again at a different ply.
+ *
+ * Every search is timed into the engine's StrategyStats, and the search counters are
+ * added when getBestMove is given a SearchMetrics.
+ *
+ * One engine searches one position at a time; getBestMove is synchronized. Use one
+ * engine per thread to search in parallel.
+ */
+
+public class UltimateEngine {
+
+    private static final int MAX_PLY = 81;
+    private static final int WIN_SCORE = 1_000_000;
+    private static final int INFINITY = WIN_SCORE + 1;
+    // scores at least this far from 0 are wins or losses, not evaluations.
+    private static final int WIN_BOUND = WIN_SCORE - MAX_PLY;
+    private static final int NO_MOVE = 0xFF;
+
+    private static final int EXACT = 0;
+    private static final int LOWER = 1;
+    private static final int UPPER = 2;
+
+    private static final boolean[] HAS_LINE = new boolean[1 << 9];
+    private static final int[] LINE_SCORE = new int[1 << 18];
+    private static final int[] SQUARE_WEIGHT = {3, 2, 3, 2, 4, 2, 3, 2, 3};
+    private static final long[][] PIECE_KEYS = new long[2][81];
+    private static final long[] NEXT_BOARD_KEYS = new long[10];
+    private static final long SIDE_KEY;
+
+    static {
+        for (int mask = 0; mask < (1 << 9); mask++) {
+            for (int line : BatchWinDetector.LINES) {
+                HAS_LINE[mask] |= (mask & line) == line;
+            }
+        }
+
+        // score of own pieces (low 9 bits) against blockers (high 9 bits): lines
+        // still open to us with one or two of our pieces in them.
+        for (int packed = 0; packed < (1 << 18); packed++) {
+            int own = packed & 0x1FF;
+            int blocked = packed >>> 9;
+            int score = 0;
+            for (int line : BatchWinDetector.LINES) {
+                if ((blocked & line) == 0) {
+                    int count = Integer.bitCount(own & line);
+                    score += count == 2 ? 6 : count == 1 ? 1 : 0;
+                }
+            }
+            LINE_SCORE[packed] = score;
+        }
+
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        for (int side = 0; side < 2; side++) {
+            for (int move = 0; move < 81; move++) {
+                PIECE_KEYS[side][move] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < NEXT_BOARD_KEYS.length; i++) {
+            NEXT_BOARD_KEYS[i] = random.nextLong();
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    // position
+    private final int[] boards = new int[9];
+    private int xWon;
+    private int oWon;
+    private int drawn;
+    private int nextBoard; // -1 for any open board
+    private int side; // 0 for X, 1 for O
+    private long hash;
+
+    // undo information, one entry per ply
+    private final int[] undoNextBoard = new int[MAX_PLY + 1];
+    private final int[] undoClosed = new int[MAX_PLY + 1];
+    private int ply;
+
+    // search
+    private final int[][] moveLists = new int[MAX_PLY + 1][81];
+    private final long[] tableKeys;
+    private final long[] tableEntries;
+    private final int tableMask;
+    private final StrategyStats stats = new StrategyStats();
+    private SearchMetrics metrics;
+    private long deadline;
+    private boolean stopped;
+    private long nodes;
+
+    /**
+     * Creates an engine with a transposition table of 2^20 entries (16 MB).
+     */
+
+    public UltimateEngine() {
+        this(20);
+    }
+
+    /**
+     * Creates an engine with a transposition table of 2^tableBits entries.
+     */
+
+    public UltimateEngine(int tableBits) {
+        tableKeys = new long[1 << tableBits];
+        tableEntries = new long[1 << tableBits];
+        tableMask = (1 << tableBits) - 1;
+    }
+
+    /**
+     * Returns the best move found for the current player within the time budget, as
+     * int[] {boardX, boardY, x, y}, or null if the game is over. Counts the search into
+     * metrics unless it is null.
+     */
+
+    public synchronized int[] getBestMove(UltimateTicTacToe game, long budgetNanos,
+                                          SearchMetrics metrics) {
+        setPosition(game);
+        int count = generateMoves(moveLists[0]);
+        if (count == 0 || isWon()) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        this.metrics = metrics;
+        this.deadline = start + budgetNanos;
+        this.stopped = false;
+        this.nodes = 0;
+
+        int bestMove = moveLists[0][0];
+        for (int depth = 1; depth <= MAX_PLY - game.getTurnCount() && !stopped; depth++) {
+            int move = searchRoot(depth);
+            if (!stopped) {
+                bestMove = move;
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        stats.recordMove(elapsed);
+        if (metrics != null) {
+            stats.recordSearch(metrics, elapsed);
+        }
+
+        int board = bestMove / 9;
+        int square = bestMove % 9;
+        return new int[]{board / 3, board % 3, square / 3, square % 3};
+    }
+
+    /**
+     * Returns the latency and search totals of every getBestMove call so far.
+     */
+
+    public StrategyStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Loads a game into the bitboards.
+     */
+
+    private void setPosition(UltimateTicTacToe game) {
+        xWon = 0;
+        oWon = 0;
+        drawn = 0;
+        hash = 0;
+        ply = 0;
+
+        for (int b = 0; b < 9; b++) {
+            boards[b] = PackedBoard.pack(game.getBoard(b / 3, b % 3));
+            int x = PackedBoard.xMask(boards[b]);
+            int o = PackedBoard.oMask(boards[b]);
+
+            if (HAS_LINE[x]) {
+                xWon |= 1 << b;
+            } else if (HAS_LINE[o]) {
+                oWon |= 1 << b;
+            } else if ((x | o) == PackedBoard.FULL_MASK) {
+                drawn |= 1 << b;
+            }
+            for (int square = 0; square < 9; square++) {
+                if ((x & (1 << square)) != 0) {
+                    hash ^= PIECE_KEYS[0][b * 9 + square];
+                } else if ((o & (1 << square)) != 0) {
+                    hash ^= PIECE_KEYS[1][b * 9 + square];
+                }
+            }
+        }
+
+        int[] next = game.getNextBoard();
+        nextBoard = next == null ? -1 : next[0] * 3 + next[1];
+        side = game.getTurn() == TicTacToe.X ? 0 : 1;
+        hash ^= NEXT_BOARD_KEYS[nextBoard + 1];
+        if (side == 1) {
+            hash ^= SIDE_KEY;
+        }
+    }
+
+    private int searchRoot(int depth) {
+        int[] moves = moveLists[0];
+        int count = generateMoves(moves);
+        orderMoves(moves, count, probeMove());
+
+        int alpha = -INFINITY;
+        int bestMove = moves[0];
+        for (int i = 0; i < count; i++) {
+            makeMove(moves[i]);
+            int score = -search(depth - 1, -INFINITY, -alpha);
+            unmakeMove(moves[i]);
+
+            if (stopped) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = moves[i];
+            }
+        }
+        if (!stopped) {
+            store(depth, alpha, EXACT, bestMove);
+        }
+        return bestMove;
+    }
+
+    /**
+     * Negamax with alpha-beta pruning. Returns the score for the side to move.
+     */
+
+    private int search(int depth, int alpha, int beta) {
+        if ((++nodes & 1023) == 0 && System.nanoTime() > deadline) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (metrics != null) {
+            metrics.visit(ply);
+        }
+
+        // the player who just moved may have won; prefer quicker wins.
+        if (isWon()) {
+            return -WIN_SCORE + ply;
+        }
+        int[] moves = moveLists[ply];
+        int count = generateMoves(moves);
+        if (count == 0) {
+            return 0;
+        }
+        if (depth <= 0) {
+            return evaluate();
+        }
+
+        int originalAlpha = alpha;
+        int slot = (int) hash & tableMask;
+        int hashMove = NO_MOVE;
+        boolean hit = tableKeys[slot] == hash;
+        if (metrics != null) {
+            metrics.cacheLookup(hit);
+        }
+        if (hit) {
+            long entry = tableEntries[slot];
+            int entryScore = fromTable((int) entry);
+            int entryDepth = (int) (entry >>> 32) & 0xFF;
+            int entryFlag = (int) (entry >>> 40) & 0x3;
+            hashMove = (int) (entry >>> 48) & 0xFF;
+
+            if (entryDepth >= depth) {
+                if (entryFlag == EXACT
+                        || (entryFlag == LOWER && entryScore >= beta)
+                        || (entryFlag == UPPER && entryScore <= alpha)) {
+                    return entryScore;
+                }
+            }
+        }
+        orderMoves(moves, count, hashMove);
+
+        int best = -INFINITY;
+        int bestMove = moves[0];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            makeMove(move);
+            int score = -search(depth - 1, -beta, -alpha);
+            unmakeMove(move);
+
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+            }
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        int flag = best <= originalAlpha ? UPPER : best >= beta ? LOWER : EXACT;
+        store(depth, best, flag, bestMove);
+        return best;
+    }
+
+    /**
+     * Returns a heuristic score of a quiet position for the side to move: open lines
+     * on the meta board count most, then open lines on each board still in play,
+     * weighted by how valuable that board's square is on the meta board.
+     */
+
+    private int evaluate() {
+        int closed = xWon | oWon | drawn;
+        int score = 40 * (LINE_SCORE[xWon | ((oWon | drawn) << 9)]
+                - LINE_SCORE[oWon | ((xWon | drawn) << 9)]);
+
+        for (int b = 0; b < 9; b++) {
+            if ((closed & (1 << b)) == 0) {
+                int x = PackedBoard.xMask(boards[b]);
+                int o = PackedBoard.oMask(boards[b]);
+                score += SQUARE_WEIGHT[b]
+                        * (LINE_SCORE[x | (o << 9)] - LINE_SCORE[o | (x << 9)]);
+            } else if ((xWon & (1 << b)) != 0) {
+                score += 8 * SQUARE_WEIGHT[b];
+            } else if ((oWon & (1 << b)) != 0) {
+                score -= 8 * SQUARE_WEIGHT[b];
+            }
+        }
+        return side == 0 ? score : -score;
+    }
+
+    /**
+     * Returns true if either player has three boards in a row. Only the player who
+     * just moved can have.
+     */
+
+    private boolean isWon() {
+        return HAS_LINE[xWon] || HAS_LINE[oWon];
+    }
+
+    /**
+     * Writes every legal move into moves and returns how many there are.
+     */
+
+    private int generateMoves(int[] moves) {
+        int closed = xWon | oWon | drawn;
+        int count = 0;
+
+        for (int b = 0; b < 9; b++) {
+            if ((closed & (1 << b)) != 0 || (nextBoard != -1 && nextBoard != b)) {
+                continue;
+            }
+            int empty = ~(boards[b] | (boards[b] >>> 9)) & PackedBoard.FULL_MASK;
+            while (empty != 0) {
+                int square = Integer.numberOfTrailingZeros(empty);
+                empty &= empty - 1;
+                moves[count++] = b * 9 + square;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Moves the hash move to the front, then moves that win a board.
+     */
+
+    private void orderMoves(int[] moves, int count, int hashMove) {
+        int front = 0;
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == hashMove) {
+                swap(moves, i, front++);
+                break;
+            }
+        }
+        for (int i = front; i < count; i++) {
+            int b = moves[i] / 9;
+            int own = side == 0 ? PackedBoard.xMask(boards[b]) : PackedBoard.oMask(boards[b]);
+            if (HAS_LINE[own | (1 << (moves[i] % 9))]) {
+                swap(moves, i, front++);
+            }
+        }
+    }
+
+    private static void swap(int[] moves, int i, int j) {
+        int temp = moves[i];
+        moves[i] = moves[j];
+        moves[j] = temp;
+    }
+
+    private void makeMove(int move) {
+        int b = move / 9;
+        int square = move % 9;
+        int closedBefore = xWon | oWon | drawn;
+
+        undoNextBoard[ply] = nextBoard;
+        undoClosed[ply] = closedBefore;
+        ply++;
+
+        boards[b] |= side == 0 ? 1 << square : 1 << (square + 9);
+        hash ^= PIECE_KEYS[side][move];
+
+        int own = side == 0 ? PackedBoard.xMask(boards[b]) : PackedBoard.oMask(boards[b]);
+        if (HAS_LINE[own]) {
+            if (side == 0) {
+                xWon |= 1 << b;
+            } else {
+                oWon |= 1 << b;
+            }
+        } else if ((PackedBoard.xMask(boards[b]) | PackedBoard.oMask(boards[b]))
+                == PackedBoard.FULL_MASK) {
+            drawn |= 1 << b;
+        }
+
+        hash ^= NEXT_BOARD_KEYS[nextBoard + 1];
+        nextBoard = ((xWon | oWon | drawn) & (1 << square)) != 0 ? -1 : square;
+        hash ^= NEXT_BOARD_KEYS[nextBoard + 1];
+
+        side ^= 1;
+        hash ^= SIDE_KEY;
+    }
+
+    private void unmakeMove(int move) {
+        int b = move / 9;
+        int square = move % 9;
+
+        side ^= 1;
+        hash ^= SIDE_KEY;
+
+        ply--;
+        hash ^= NEXT_BOARD_KEYS[nextBoard + 1];
+        nextBoard = undoNextBoard[ply];
+        hash ^= NEXT_BOARD_KEYS[nextBoard + 1];
+
+        // a move can only close its own board.
+        int bit = 1 << b;
+        if ((undoClosed[ply] & bit) == 0) {
+            xWon &= ~bit;
+            oWon &= ~bit;
+            drawn &= ~bit;
+        }
+
+        boards[b] &= side == 0 ? ~(1 << square) : ~(1 << (square + 9));
+        hash ^= PIECE_KEYS[side][move];
+    }
+
+    private int probeMove() {
+        int slot = (int) hash & tableMask;
+        return tableKeys[slot] == hash ? (int) (tableEntries[slot] >>> 48) & 0xFF : NO_MOVE;
+    }
+
+    private void store(int depth, int score, int flag, int move) {
+        int slot = (int) hash & tableMask;
+        tableKeys[slot] = hash;
+        tableEntries[slot] = (toTable(score) & 0xFFFFFFFFL)
+                | ((long) Math.min(depth, 0xFF) << 32)
+                | ((long) flag << 40)
+                | ((long) move << 48);
+    }
+
+    /**
+     * Converts a win or loss score from plies since the root to plies since the
+     * current position, for storing.
+     */
+
+    private int toTable(int score) {
+        if (score >= WIN_BOUND) {
+            return score + ply;
+        } else if (score <= -WIN_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a stored win or loss score back to plies since the root.
+     */
+
+    private int fromTable(int score) {
+        if (score >= WIN_BOUND) {
+            return score - ply;
+        } else if (score <= -WIN_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,233 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.ArrayList;
+
+/**
+ * Ultimate Tic-Tac-Toe: a 3x3 grid of TicTacToe boards. Winning a small board claims
+ * that square of the big (meta) board, and three claimed squares in a row win the
+ * game.
+ *
+ * The square a player moves to on a small board sends the opponent to the small board
+ * in the same position of the grid. If that board has been won or filled up, the
+ * opponent may play on any open board instead. X moves first.
+ *
+ * Boards are addressed (boardX, boardY) in the grid and squares (x, y) within a board,
+ * both the same way as TicTacToe.getPieceAt.
+ */
+
+public class UltimateTicTacToe {
+
+    private final TicTacToe[][] boards = new TicTacToe[3][3];
+    private final TicTacToe meta = new TicTacToe();
+    private int turnCount = 0;
+    private int nextBoardX = -1; // -1 when the next player may choose any open board
+    private int nextBoardY = -1;
+
+    /**
+     * Creates a game with all nine boards empty.
+     */
+
+    public UltimateTicTacToe() {
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                boards[i][j] = new TicTacToe();
+            }
+        }
+    }
+
+    /**
+     * Places the current player's piece if the move is legal. Returns false, and
+     * changes nothing, if it is not.
+     */
+
+    public boolean move(int boardX, int boardY, int x, int y) {
+        if (!isLegal(boardX, boardY, x, y)) {
+            return false;
+        }
+        char player = getTurn();
+        TicTacToe board = boards[boardX][boardY];
+        board.move(board, x, y, player);
+
+        if (board.playerWin() == player) {
+            meta.move(meta, boardX, boardY, player);
+        }
+        turnCount++;
+
+        if (isOpen(x, y)) {
+            nextBoardX = x;
+            nextBoardY = y;
+        } else {
+            nextBoardX = -1;
+            nextBoardY = -1;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the current player may move to the given square.
+     */
+
+    public boolean isLegal(int boardX, int boardY, int x, int y) {
+        if (gameOver() || !isOpen(boardX, boardY)) {
+            return false;
+        }
+        if (nextBoardX != -1 && (nextBoardX != boardX || nextBoardY != boardY)) {
+            return false;
+        }
+        return boards[boardX][boardY].getPieceAt(x, y) == TicTacToe.NULL;
+    }
+
+    /**
+     * Returns true if a board has not been won or filled up yet.
+     */
+
+    public boolean isOpen(int boardX, int boardY) {
+        return !boards[boardX][boardY].gameOver();
+    }
+
+    /**
+     * Returns an int[] {boardX, boardY} of the board the current player must play on,
+     * or null if any open board may be played.
+     */
+
+    public int[] getNextBoard() {
+        return nextBoardX == -1 ? null : new int[]{nextBoardX, nextBoardY};
+    }
+
+    /**
+     * Returns list of all legal moves as int[] {boardX, boardY, x, y}.
+     */
+
+    public ArrayList<int[]> getMoves() {
+        ArrayList<int[]> moves = new ArrayList<>();
+
+        for (int boardX = 0; boardX < 3; boardX++) {
+            for (int boardY = 0; boardY < 3; boardY++) {
+                for (int x = 0; x < 3; x++) {
+                    for (int y = 0; y < 3; y++) {
+                        if (isLegal(boardX, boardY, x, y)) {
+                            moves.add(new int[]{boardX, boardY, x, y});
+                        }
+                    }
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Returns the small board at the given grid position. Must not be changed
+     * directly.
+     */
+
+    public TicTacToe getBoard(int boardX, int boardY) {
+        return boards[boardX][boardY];
+    }
+
+    /**
+     * Returns the meta board, holding the winner of each small board. Must not be
+     * changed directly.
+     */
+
+    public TicTacToe getMeta() {
+        return meta;
+    }
+
+    /**
+     * Returns piece at given square of given board.
+     */
+
+    public char getPieceAt(int boardX, int boardY, int x, int y) {
+        return boards[boardX][boardY].getPieceAt(x, y);
+    }
+
+    /**
+     * Returns X or O depending on whose turn it is
+     */
+
+    public char getTurn() {
+        return turnCount % 2 == 0 ? TicTacToe.X : TicTacToe.O;
+    }
+
+    /**
+     * Returns turn count.
+     */
+
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * Returns either X or O depending on which player won the game. Returns '-' if no
+     * one has yet won.
+     */
+
+    public char playerWin() {
+        return meta.playerWin();
+    }
+
+    /**
+     * Returns true if the game is over.
+     */
+
+    public boolean gameOver() {
+        if (playerWin() != TicTacToe.NULL) {
+            return true;
+        }
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                if (isOpen(i, j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the game is a draw.
+     */
+
+    public boolean gameDraw() {
+        return gameOver() && playerWin() == TicTacToe.NULL;
+    }
+
+    /**
+     * Clears all boards.
+     */
+
+    public void getNewGame() {
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                boards[i][j].getNewGame();
+            }
+        }
+        meta.getNewGame();
+        turnCount = 0;
+        nextBoardX = -1;
+        nextBoardY = -1;
+    }
+
+    /**
+     * Overrides toString method.
+     */
+
+    @Override
+    public String toString() {
+        String output = "Turn Count: " + turnCount;
+
+        for (int boardX = 0; boardX < 3; boardX++) {
+            for (int x = 0; x < 3; x++) {
+                output += "\n";
+                for (int boardY = 0; boardY < 3; boardY++) {
+                    for (int y = 0; y < 3; y++) {
+                        output += boards[boardX][boardY].getPieceAt(x, y) + " ";
+                    }
+                    output += boardY < 2 ? "| " : "";
+                }
+            }
+            output += boardX < 2 ? "\n------+-------+------" : "";
+        }
+        return output;
+    }
+}
@@ -0,0 +1,49 @@
+package advanced.beginner.TicTacToe;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API half of BatchWinDetector. Only loaded once BatchWinDetector has checked
+ * that the jdk.incubator.vector module is present, so nothing else may refer to it.
+ */
+
+final class VectorWinKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorWinKernel() {
+    }
+
+    static void evaluate(int[] boards, byte[] results, int from, int to) {
+        int[] lanes = new int[SPECIES.length()];
+        int i = from;
+
+        for (; i + SPECIES.length() <= to; i += SPECIES.length()) {
+            IntVector board = IntVector.fromArray(SPECIES, boards, i);
+            IntVector x = board.and(PackedBoard.FULL_MASK);
+            IntVector o = board.lanewise(VectorOperators.LSHR, PackedBoard.CELLS)
+                    .and(PackedBoard.FULL_MASK);
+
+            // walk lines backwards so the first line in TicTacToe's order wins out.
+            IntVector status = IntVector.zero(SPECIES);
+            for (int l = BatchWinDetector.LINES.length - 1; l >= 0; l--) {
+                int line = BatchWinDetector.LINES[l];
+                status = status.blend(BatchWinDetector.O_WIN, o.and(line).eq(line))
+                        .blend(BatchWinDetector.X_WIN, x.and(line).eq(line));
+            }
+
+            VectorMask<Integer> full = x.or(o).eq(PackedBoard.FULL_MASK);
+            VectorMask<Integer> noWinner = status.eq(BatchWinDetector.IN_PROGRESS);
+            status = status.blend(BatchWinDetector.DRAW, full.and(noWinner));
+
+            status.intoArray(lanes, 0);
+            for (int lane = 0; lane < lanes.length; lane++) {
+                results[i + lane] = (byte) lanes[lane];
+            }
+        }
+        BatchWinDetector.evaluateScalar(boards, results, i, to);
+    }
+}
@@ -0,0 +1,95 @@
+package advanced.beginner.TicTacToe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks BatchWinDetector against TicTacToe on every one of the 3^9 boards, legal or
+ * not. Surefire runs with jdk.incubator.vector, so evaluate() takes the vector path.
+ */
+
+class BatchWinDetectorTest {
+
+    private static final int BOARDS = 19683; // 3^9
+
+    /**
+     * Returns every way of filling the 9 squares with X, O or nothing.
+     */
+
+    private static int[] allBoards() {
+        int[] boards = new int[BOARDS];
+        for (int index = 0; index < BOARDS; index++) {
+            int board = PackedBoard.EMPTY;
+            int digits = index;
+            for (int square = 0; square < PackedBoard.CELLS; square++) {
+                char piece = digits % 3 == 1 ? TicTacToe.X
+                        : digits % 3 == 2 ? TicTacToe.O : TicTacToe.NULL;
+                board = PackedBoard.withPiece(board, square / 3, square % 3, piece);
+                digits /= 3;
+            }
+            boards[index] = board;
+        }
+        return boards;
+    }
+
+    private static byte expectedStatus(TicTacToe game) {
+        char winner = game.playerWin();
+        if (winner == TicTacToe.X) {
+            return BatchWinDetector.X_WIN;
+        } else if (winner == TicTacToe.O) {
+            return BatchWinDetector.O_WIN;
+        }
+        return game.gameDraw() ? BatchWinDetector.DRAW : BatchWinDetector.IN_PROGRESS;
+    }
+
+    @Test
+    void vectorPathIsUnderTest() {
+        assertTrue(BatchWinDetector.isVectorized(),
+                "run with --add-modules jdk.incubator.vector");
+    }
+
+    @Test
+    void evaluateMatchesTicTacToeOnEveryBoard() {
+        int[] boards = allBoards();
+        byte[] results = new byte[BOARDS];
+        byte[] scalarResults = new byte[BOARDS];
+        BatchWinDetector.evaluate(boards, results);
+        BatchWinDetector.evaluateScalar(boards, scalarResults, 0, BOARDS);
+
+        for (int i = 0; i < BOARDS; i++) {
+            TicTacToe game = PackedBoard.unpack(boards[i]);
+            byte expected = expectedStatus(game);
+            assertEquals(expected, results[i], game::toString);
+            assertEquals(expected, scalarResults[i], game::toString);
+        }
+    }
+
+    @Test
+    void unalignedRangesMatchWholeBatch() {
+        int[] boards = allBoards();
+        byte[] whole = new byte[BOARDS];
+        byte[] parts = new byte[BOARDS];
+        BatchWinDetector.evaluate(boards, whole);
+
+        // odd range ends exercise the scalar tail after the vector loop.
+        for (int from = 0; from < BOARDS; from += 1001) {
+            BatchWinDetector.evaluate(boards, parts, from, Math.min(from + 1001, BOARDS));
+        }
+        for (int i = 0; i < BOARDS; i++) {
+            assertEquals(whole[i], parts[i]);
+        }
+    }
+
+    @Test
+    void snapshotMatchesTicTacToeOnEveryBoard() {
+        for (int board : allBoards()) {
+            TicTacToe game = PackedBoard.unpack(board);
+            GameSnapshot snapshot = GameSnapshot.of(game, 0);
+
+            assertEquals(game.playerWin(), snapshot.playerWin(), game::toString);
+            assertEquals(game.gameDraw(), snapshot.gameDraw(), game::toString);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package advanced.beginner.TicTacToe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for GameEventPublisher. Everything runs on the calling thread, so each
+ * submit, request and close has been fully delivered by the time it returns.
+ */
+
+class GameEventPublisherTest {
+
+    private static GameEventPublisher publisher(int bufferSize, int maxBatchSize,
+                                                GameEventPublisher.OverflowPolicy policy) {
+        return new GameEventPublisher(Runnable::run, bufferSize, maxBatchSize, policy);
+    }
+
+    private static GameEvent event(int square) {
+        return GameEvent.move(GameSnapshot.of(new TicTacToe(), 0), square / 3, square % 3,
+                TicTacToe.X);
+    }
+
+    @Test
+    void deliversOneBatchPerUnitOfDemand() {
+        GameEventPublisher publisher = publisher(16, 3, GameEventPublisher.OverflowPolicy.DROP);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        for (int square = 0; square < 7; square++) {
+            publisher.submit(event(square));
+        }
+        assertTrue(subscriber.batches.isEmpty());
+
+        subscriber.subscription.request(1);
+        assertEquals(List.of(3), subscriber.batchSizes());
+
+        subscriber.subscription.request(5);
+        assertEquals(List.of(3, 3, 1), subscriber.batchSizes());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), subscriber.squares());
+    }
+
+    @Test
+    void dropKeepsOldestEventsWhenBufferIsFull() {
+        GameEventPublisher publisher = publisher(4, 64, GameEventPublisher.OverflowPolicy.DROP);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        for (int square = 0; square < 6; square++) {
+            publisher.submit(event(square));
+        }
+        subscriber.subscription.request(1);
+
+        assertEquals(List.of(0, 1, 2, 3), subscriber.squares());
+        assertEquals(2, publisher.getDroppedCount());
+    }
+
+    @Test
+    void latestKeepsNewestEventsWhenBufferIsFull() {
+        GameEventPublisher publisher = publisher(4, 64, GameEventPublisher.OverflowPolicy.LATEST);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        for (int square = 0; square < 6; square++) {
+            publisher.submit(event(square));
+        }
+        subscriber.subscription.request(1);
+
+        assertEquals(List.of(2, 3, 4, 5), subscriber.squares());
+        assertEquals(2, publisher.getDroppedCount());
+    }
+
+    @Test
+    void nonPositiveRequestSignalsError() {
+        GameEventPublisher publisher = publisher(4, 64, GameEventPublisher.OverflowPolicy.DROP);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertFalse(subscriber.completed);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void closeCompletesAfterBufferedEvents() {
+        GameEventPublisher publisher = publisher(4, 64, GameEventPublisher.OverflowPolicy.DROP);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        publisher.submit(event(0));
+        publisher.close();
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(1);
+        assertEquals(List.of(0), subscriber.squares());
+        assertTrue(subscriber.completed);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void submitAndSubscribeAfterCloseDoNothing() {
+        GameEventPublisher publisher = publisher(4, 64, GameEventPublisher.OverflowPolicy.DROP);
+        publisher.close();
+        publisher.submit(event(0));
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        assertTrue(subscriber.completed);
+        assertTrue(subscriber.batches.isEmpty());
+        assertFalse(publisher.hasSubscribers());
+    }
+
+    @Test
+    void cancelInOnSubscribeLeavesNoSubscription() {
+        GameEventPublisher publisher = publisher(4, 64, GameEventPublisher.OverflowPolicy.DROP);
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                super.onSubscribe(subscription);
+                subscription.cancel();
+            }
+        };
+        publisher.subscribe(subscriber);
+
+        for (int square = 0; square < 9; square++) {
+            publisher.submit(event(square));
+        }
+
+        assertEquals(0, publisher.getSubscriberCount());
+        assertFalse(publisher.hasSubscribers());
+        assertEquals(0, publisher.getDroppedCount());
+        assertTrue(subscriber.batches.isEmpty());
+    }
+
+    /**
+     * Subscriber that remembers everything it is sent and never requests on its own.
+     */
+
+    private static class RecordingSubscriber implements Flow.Subscriber<List<GameEvent>> {
+
+        private final List<List<GameEvent>> batches = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed = false;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(List<GameEvent> batch) {
+            batches.add(batch);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        List<Integer> batchSizes() {
+            List<Integer> sizes = new ArrayList<>();
+            for (List<GameEvent> batch : batches) {
+                sizes.add(batch.size());
+            }
+            return sizes;
+        }
+
+        List<Integer> squares() {
+            List<Integer> squares = new ArrayList<>();
+            for (List<GameEvent> batch : batches) {
+                for (GameEvent event : batch) {
+                    squares.add(event.getX() * 3 + event.getY());
+                }
+            }
+            return squares;
+        }
+    }
+}
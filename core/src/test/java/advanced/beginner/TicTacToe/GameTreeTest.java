@@ -0,0 +1,104 @@
+package advanced.beginner.TicTacToe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for GameTree.
+ */
+
+class GameTreeTest {
+
+    @Test
+    void transpositionsShareOneNode() {
+        GameTree tree = new GameTree();
+        GameTree.Node root = tree.getRoot();
+
+        GameTree.Node first = root.getChild(0, 0).getChild(1, 1).getChild(0, 1);
+        GameTree.Node second = root.getChild(0, 1).getChild(1, 1).getChild(0, 0);
+
+        assertSame(first, second);
+        assertSame(first, tree.getNode(first.getBoard()));
+    }
+
+    @Test
+    void valuesMatchMinimax() {
+        GameTree tree = new GameTree();
+        Set<Integer> seen = new HashSet<>();
+        ArrayDeque<GameTree.Node> toVisit = new ArrayDeque<>();
+        toVisit.add(tree.getRoot());
+
+        while (!toVisit.isEmpty()) {
+            GameTree.Node node = toVisit.poll();
+            if (!seen.add(node.getBoard())) {
+                continue;
+            }
+            TicTacToe game = node.toGame();
+            TicTacToeAI ai = new TicTacToeAI(game);
+            char turn = node.getTurn();
+
+            for (char player : new char[]{TicTacToe.X, TicTacToe.O}) {
+                assertEquals(ai.minimaxScore(game, turn, player), node.getScore(player),
+                        game::toString);
+            }
+            toVisit.addAll(node.getChildren());
+        }
+        assertEquals(5478, seen.size());
+    }
+
+    @Test
+    void emptyBoardIsADraw() {
+        GameTree tree = new GameTree();
+        assertEquals(BatchWinDetector.DRAW, tree.getRoot().getValue());
+    }
+
+    @Test
+    void advanceAndPruneShrinkTheTree() {
+        GameTree tree = new GameTree();
+        tree.getRoot().getValue();
+        int fullSize = tree.size();
+
+        GameTree.Node center = tree.advance(1, 1);
+        int advancedSize = tree.size();
+        assertSame(center, tree.getRoot());
+        assertTrue(advancedSize < fullSize);
+
+        for (GameTree.Node child : center.getChildren()) {
+            child.collapse();
+        }
+        tree.prune();
+        assertEquals(1 + center.getChildren().size(), tree.size());
+        assertEquals(BatchWinDetector.DRAW, center.getValue());
+    }
+
+    @Test
+    void prunedNodeCantBeExpanded() {
+        GameTree tree = new GameTree();
+        GameTree.Node corner = tree.getRoot().getChild(2, 2);
+        tree.advance(0, 0);
+
+        assertTrue(corner.isDetached());
+        assertFalse(corner.isExpanded());
+        assertThrows(IllegalStateException.class, () -> corner.getChild(0, 0));
+        assertFalse(tree.getRoot().isDetached());
+    }
+
+    @Test
+    void gameTreeStrategyRejectsTheWrongPlayer() {
+        GameTreeStrategy strategy = new GameTreeStrategy();
+        TicTacToe game = new TicTacToe();
+        game.move(game, 0, 0, TicTacToe.X);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> strategy.getMove(game, TicTacToe.X));
+    }
+}
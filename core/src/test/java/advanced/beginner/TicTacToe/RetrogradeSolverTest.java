@@ -0,0 +1,119 @@
+package advanced.beginner.TicTacToe;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for RetrogradeSolver, ResultTable and TablebaseStrategy on 3x3, which solves in
+ * milliseconds. PackedBoard and the solver number the 3x3 cells the same way, so packed
+ * masks are passed to the solver as they are.
+ */
+
+class RetrogradeSolverTest {
+
+    private final RetrogradeSolver solver = new RetrogradeSolver(3, 3, 3);
+
+    /**
+     * Returns every position reachable from the empty board with X moving first and
+     * no moves after the game is over.
+     */
+
+    private static Set<Integer> reachableBoards() {
+        Set<Integer> reached = new HashSet<>();
+        addReachable(PackedBoard.EMPTY, reached);
+        return reached;
+    }
+
+    private static void addReachable(int board, Set<Integer> reached) {
+        if (!reached.add(board)
+                || BatchWinDetector.isGameOver(BatchWinDetector.status(board))) {
+            return;
+        }
+        char player = PackedBoard.pieceCount(board) % 2 == 0 ? TicTacToe.X : TicTacToe.O;
+        for (int square = 0; square < PackedBoard.CELLS; square++) {
+            if (PackedBoard.getPieceAt(board, square / 3, square % 3) == TicTacToe.NULL) {
+                addReachable(PackedBoard.withPiece(board, square / 3, square % 3, player),
+                        reached);
+            }
+        }
+    }
+
+    private long canonicalIndex(int board) {
+        return solver.canonicalIndex(PackedBoard.xMask(board), PackedBoard.oMask(board));
+    }
+
+    @Test
+    void emptyBoardIsADraw() {
+        ResultTable table = solver.solve();
+        assertEquals(ResultTable.DRAW, table.get(canonicalIndex(PackedBoard.EMPTY)));
+    }
+
+    @Test
+    void reachablePositionsFallInto765SymmetryClasses() {
+        Set<Integer> boards = reachableBoards();
+        Set<Long> canonical = new HashSet<>();
+        for (int board : boards) {
+            canonical.add(canonicalIndex(board));
+        }
+
+        assertEquals(5478, boards.size());
+        assertEquals(765, canonical.size());
+    }
+
+    @Test
+    void everyReachablePositionMatchesGameTree() {
+        ResultTable table = solver.solve();
+        GameTree tree = new GameTree();
+
+        for (int board : reachableBoards()) {
+            assertEquals(tree.getNode(board).getValue(), table.get(canonicalIndex(board)),
+                    () -> PackedBoard.unpack(board).toString());
+        }
+    }
+
+    @Test
+    void fileRoundTripKeepsHeaderAndResults(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("3x3.tablebase");
+        ResultTable expected = solver.solve();
+        solver.solve(file).close();
+
+        try (ResultTable table = ResultTable.open(file)) {
+            assertEquals(3, table.getWidth());
+            assertEquals(3, table.getHeight());
+            assertEquals(3, table.getK());
+            assertEquals(expected.size(), table.size());
+            for (long index = 0; index < table.size(); index++) {
+                assertEquals(expected.get(index), table.get(index));
+            }
+        }
+    }
+
+    @Test
+    void openRejectsFilesThatAreNotTables(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("not-a-table");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IOException.class, () -> ResultTable.open(file));
+    }
+
+    @Test
+    void tablebaseStrategyRejectsTheWrongPlayer() {
+        TablebaseStrategy strategy = new TablebaseStrategy();
+        TicTacToe game = new TicTacToe();
+        game.move(game, 0, 0, TicTacToe.X);
+
+        assertArrayEquals(new int[]{1, 1}, strategy.getMove(game, TicTacToe.O));
+        assertThrows(IllegalArgumentException.class,
+                () -> strategy.getMove(game, TicTacToe.X));
+    }
+}
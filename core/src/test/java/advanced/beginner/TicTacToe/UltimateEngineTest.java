@@ -0,0 +1,97 @@
+package advanced.beginner.TicTacToe;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for UltimateEngine, on positions from seeded random games.
+ */
+
+class UltimateEngineTest {
+
+    private static final long BUDGET_NANOS = 2_000_000;
+
+    private final UltimateEngine engine = new UltimateEngine(16);
+
+    private static UltimateTicTacToe replay(List<int[]> moves) {
+        UltimateTicTacToe game = new UltimateTicTacToe();
+        for (int[] move : moves) {
+            game.move(move[0], move[1], move[2], move[3]);
+        }
+        return game;
+    }
+
+    /**
+     * Returns true if playing move in the position after moves ends the game with a
+     * win for the player making it.
+     */
+
+    private static boolean winsGame(List<int[]> moves, int[] move) {
+        UltimateTicTacToe game = replay(moves);
+        char player = game.getTurn();
+        game.move(move[0], move[1], move[2], move[3]);
+        return game.gameOver() && game.playerWin() == player;
+    }
+
+    @Test
+    void everyMoveIsLegal() {
+        for (int seed = 0; seed < 10; seed++) {
+            Random random = new Random(seed);
+            UltimateTicTacToe game = new UltimateTicTacToe();
+            SearchMetrics metrics = new SearchMetrics();
+
+            while (!game.gameOver()) {
+                int[] move;
+                if (game.getTurn() == TicTacToe.X) {
+                    List<int[]> moves = game.getMoves();
+                    move = moves.get(random.nextInt(moves.size()));
+                } else {
+                    move = engine.getBestMove(game, BUDGET_NANOS, metrics);
+                    assertNotNull(move);
+                    assertTrue(game.isLegal(move[0], move[1], move[2], move[3]),
+                            "seed " + seed + "\n" + game);
+                }
+                game.move(move[0], move[1], move[2], move[3]);
+            }
+            assertNull(engine.getBestMove(game, BUDGET_NANOS, null));
+            assertTrue(metrics.getNodes() > 0);
+        }
+        assertTrue(engine.getStats().getHistogram().getCount() > 0);
+    }
+
+    @Test
+    void playsAMoveThatWinsTheGame() {
+        int positions = 0;
+
+        // random games until 20 positions where the side to move can win at once.
+        for (int seed = 0; positions < 20; seed++) {
+            Random random = new Random(seed);
+            List<int[]> played = new ArrayList<>();
+            UltimateTicTacToe game = new UltimateTicTacToe();
+
+            while (!game.gameOver()) {
+                List<int[]> moves = game.getMoves();
+                boolean canWin = false;
+                for (int[] move : moves) {
+                    canWin |= winsGame(played, move);
+                }
+                if (canWin) {
+                    int[] best = engine.getBestMove(game, BUDGET_NANOS, null);
+                    assertTrue(winsGame(played, best), "seed " + seed + "\n" + game);
+                    positions++;
+                }
+
+                int[] move = moves.get(random.nextInt(moves.size()));
+                game.move(move[0], move[1], move[2], move[3]);
+                played.add(move);
+            }
+        }
+    }
+}
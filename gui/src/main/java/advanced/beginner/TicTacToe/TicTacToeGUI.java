@@ -24,7 +24,14 @@ import javafx.stage.Stage;
 
 public class TicTacToeGUI extends Application {
 
+    // Strategy names for each notch of the difficulty slider, easiest first.
+    private static final String[] DIFFICULTIES = {"random", "winning-move", "win-block",
+            "minimax"};
+
     private final TicTacToe game = new TicTacToe();
+    // all changes to game go through liveGame so other threads can watch it.
+    private final LiveGame liveGame = new LiveGame(game);
+    private final StrategyRegistry strategies = StrategyRegistry.getDefault();
 
     private final double height = 500;
     private final double width = 500;
@@ -35,6 +42,8 @@ public class TicTacToeGUI extends Application {
     @Override
     public void start(Stage primaryStage) {
 
+        strategies.registerMBean("gui"); // expose AI move metrics over JMX
+
         BorderPane root = new BorderPane();
 
         // Creates and formats board where gameplay takes place.
@@ -135,7 +144,7 @@ public class TicTacToeGUI extends Application {
                         // While the game isn't over, update gameboard upon click.
                         if (!game.gameOver()) {
 
-                            game.move(game, finalI, finalJ, whichPlayer);
+                            liveGame.move(finalI, finalJ, whichPlayer);
                             drawPieces(stackPanes);
 
                             // if the AIButton is selected, get opposing move from the AI.
@@ -144,7 +153,7 @@ public class TicTacToeGUI extends Application {
                                 int[] nextMove =
                                         getAIMove((int) difficultySlider.getValue(),
                                         TicTacToe.O);
-                                game.move(game, nextMove[0], nextMove[1], TicTacToe.O);
+                                liveGame.move(nextMove[0], nextMove[1], TicTacToe.O);
                                 drawPieces(stackPanes);
                             }
 
@@ -200,24 +209,12 @@ public class TicTacToeGUI extends Application {
     }
 
     /**
-     * Returns the next move generated by the computer as an int[], selected based off
-     * of the games current difficulty.
+     * Returns the next move generated by the computer as an int[], using the strategy
+     * registered for the games current difficulty.
      */
 
     private int[] getAIMove(int difficulty, char player) {
-        TicTacToeAI ai = new TicTacToeAI(game);
-        int[] move = new int[2];
-
-        switch (difficulty) {
-            case 0: move = ai.getRandomMove();
-            break;
-            case 1: move = ai.getWinningMove(player);
-            break;
-            case 2: move = ai.getWinBlockLoseAI(player);
-            break;
-            case 3: move = ai.getBestMove(player);
-        }
-        return move;
+        return strategies.getMove(DIFFICULTIES[difficulty], game, player);
     }
 
     /**
@@ -226,7 +223,7 @@ public class TicTacToeGUI extends Application {
 
     private void getNewGame(StackPane[][] stackPanes) {
 
-        game.getNewGame(); // reset game engine
+        liveGame.newGame(); // reset game engine
 
         // clear the board
         for (int i = 0; i < game.getHeight(); i++) {
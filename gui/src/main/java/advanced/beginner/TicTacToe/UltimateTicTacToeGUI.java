@@ -0,0 +1,269 @@
+package advanced.beginner.TicTacToe;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
+
+/**
+ * Displays an Ultimate Tic-Tac-Toe game with mouse interface. Boards the next move may
+ * be played on are highlighted, and won boards are marked with a large X or O. Play
+ * against the UltimateEngine (which plays O) or against another human. The slider sets
+ * how long the engine may think per move. The engine searches on a background thread,
+ * and the board and buttons are disabled until its move has been played.
+ */
+
+public class UltimateTicTacToeGUI extends Application {
+
+    private final UltimateTicTacToe game = new UltimateTicTacToe();
+    private final UltimateEngine engine = new UltimateEngine();
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "ultimate-engine");
+        thread.setDaemon(true); // don't keep the JVM alive after the window closes
+        return thread;
+    });
+
+    private final double size = 630;
+    private final double cell = size / 9;
+    private final Color backgroundColor = Color.ANTIQUEWHITE;
+    private final Color playableColor = Color.LIGHTGOLDENRODYELLOW;
+
+    @Override
+    public void start(Stage primaryStage) {
+
+        BorderPane root = new BorderPane();
+
+        // Creates and formats board where gameplay takes place.
+        Pane boardLayout = new Pane();
+        boardLayout.setMaxSize(size, size);
+        boardLayout.setPrefSize(size, size);
+
+        BorderPane gameOptionFooter = new BorderPane();
+        gameOptionFooter.setPadding(new Insets(5));
+
+        Button newGameButton = new Button("New Game");
+        newGameButton.setPrefWidth(100);
+        newGameButton.setPrefHeight(50);
+
+        // Creates toggle buttons to switch between human and AI.
+        ToggleButton humanButton = new ToggleButton("Human");
+        humanButton.setPrefWidth(100);
+        ToggleButton AIButton = new ToggleButton("AI");
+        AIButton.setPrefWidth(100);
+        AIButton.setSelected(true);
+
+        Slider thinkingTimeSlider = new Slider(0.1, 3, 1);
+        thinkingTimeSlider.setMajorTickUnit(1);
+        thinkingTimeSlider.setShowTickLabels(true);
+        thinkingTimeSlider.setTooltip(new Tooltip("Seconds the AI may think per move"));
+
+        GridPane humanAiGridPane = new GridPane();
+        humanAiGridPane.add(humanButton, 0, 0);
+        humanAiGridPane.add(AIButton, 0, 1);
+        humanAiGridPane.add(thinkingTimeSlider, 0, 2);
+
+        // shows how much the AI searched for its last move.
+        Text searchStatus = new Text();
+
+        gameOptionFooter.setLeft(newGameButton);
+        gameOptionFooter.setCenter(searchStatus);
+        gameOptionFooter.setRight(humanAiGridPane);
+
+        root.setCenter(boardLayout);
+        root.setBottom(gameOptionFooter);
+        root.setBackground(new Background(new BackgroundFill(backgroundColor,
+                CornerRadii.EMPTY, Insets.EMPTY)));
+
+        /*
+         * Each redraw rebuilds every square; the click handler of a square plays it,
+         * then lets the AI answer. The AI searches off the JavaFX thread, and the game
+         * can't be touched until its move is back on the JavaFX thread.
+         */
+
+        Runnable[] redraw = new Runnable[1];
+        redraw[0] = () -> drawBoard(boardLayout, (boardX, boardY, x, y) -> {
+
+            if (!game.move(boardX, boardY, x, y)) {
+                return; // illegal square, ignore the click
+            }
+            redraw[0].run();
+
+            if (game.gameOver()) {
+                endGame(primaryStage);
+            } else if (AIButton.isSelected()) {
+                long budget = (long) (thinkingTimeSlider.getValue() * 1_000_000_000L);
+                boardLayout.setDisable(true);
+                gameOptionFooter.setDisable(true);
+                searchStatus.setText("Thinking...");
+
+                searchExecutor.execute(() -> {
+                    SearchMetrics metrics = new SearchMetrics();
+                    int[] nextMove = engine.getBestMove(game, budget, metrics);
+
+                    Platform.runLater(() -> {
+                        game.move(nextMove[0], nextMove[1], nextMove[2], nextMove[3]);
+                        searchStatus.setText(metrics.getNodes() + " positions, depth "
+                                + metrics.getMaxDepth());
+                        boardLayout.setDisable(false);
+                        gameOptionFooter.setDisable(false);
+                        redraw[0].run();
+
+                        if (game.gameOver()) {
+                            endGame(primaryStage);
+                        }
+                    });
+                });
+            }
+        });
+        redraw[0].run();
+
+        humanButton.setOnMouseClicked(event -> {
+            AIButton.setSelected(false);
+            thinkingTimeSlider.setDisable(true);
+            game.getNewGame();
+            redraw[0].run();
+        });
+
+        AIButton.setOnMouseClicked(event -> {
+            humanButton.setSelected(false);
+            thinkingTimeSlider.setDisable(false);
+            game.getNewGame();
+            redraw[0].run();
+        });
+
+        newGameButton.setOnMouseClicked(event -> {
+            game.getNewGame();
+            redraw[0].run();
+        });
+
+        Scene scene = new Scene(root, backgroundColor);
+        primaryStage.setScene(scene);
+
+        primaryStage.setTitle("Ultimate TicTacToe");
+        primaryStage.show();
+    }
+
+    /**
+     * Called with the square the user clicked.
+     */
+
+    private interface SquareHandler {
+        void clicked(int boardX, int boardY, int x, int y);
+    }
+
+    /**
+     * Draws all 81 squares, the grid lines, and the winner of each won board.
+     */
+
+    private void drawBoard(Pane boardLayout, SquareHandler handler) {
+        boardLayout.getChildren().clear();
+
+        for (int boardX = 0; boardX < 3; boardX++) {
+            for (int boardY = 0; boardY < 3; boardY++) {
+                for (int x = 0; x < 3; x++) {
+                    for (int y = 0; y < 3; y++) {
+                        StackPane square = new StackPane();
+                        int row = boardX * 3 + x;
+                        int col = boardY * 3 + y;
+                        square.setLayoutX(col * cell);
+                        square.setLayoutY(row * cell);
+
+                        // highlight squares the next move may be played on.
+                        Color fill = game.isLegal(boardX, boardY, x, y) ? playableColor
+                                : backgroundColor;
+                        square.getChildren().add(new Rectangle(cell, cell, fill));
+
+                        char piece = game.getPieceAt(boardX, boardY, x, y);
+                        if (piece != TicTacToe.NULL) {
+                            square.getChildren().add(drawPiece(piece, cell * .6));
+                        }
+
+                        int finalBoardX = boardX;
+                        int finalBoardY = boardY;
+                        int finalX = x;
+                        int finalY = y;
+                        square.setOnMouseClicked(event -> handler.clicked(finalBoardX,
+                                finalBoardY, finalX, finalY));
+                        boardLayout.getChildren().add(square);
+                    }
+                }
+            }
+        }
+
+        drawGrid(boardLayout);
+
+        // mark won boards with one large piece over the whole board.
+        for (int boardX = 0; boardX < 3; boardX++) {
+            for (int boardY = 0; boardY < 3; boardY++) {
+                char winner = game.getBoard(boardX, boardY).playerWin();
+                if (winner != TicTacToe.NULL) {
+                    StackPane overlay = new StackPane(drawPiece(winner, cell * 2.4));
+                    overlay.setLayoutX(boardY * cell * 3);
+                    overlay.setLayoutY(boardX * cell * 3);
+                    overlay.setPrefSize(cell * 3, cell * 3);
+                    overlay.setOpacity(.6);
+                    overlay.setMouseTransparent(true);
+                    boardLayout.getChildren().add(overlay);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns an X or O of the given height.
+     */
+
+    private Text drawPiece(char piece, double textHeight) {
+        Text text = new Text(String.valueOf(piece));
+        text.setStyle("-fx-font-size: " + textHeight + ";");
+        return text;
+    }
+
+    /**
+     * Draws thin lines between squares and thick lines between boards.
+     */
+
+    public void drawGrid(Pane root) {
+        for (int i = 1; i < 9; i++) {
+            Line vertical = new Line(i * cell, 0, i * cell, size);
+            Line horizontal = new Line(0, i * cell, size, i * cell);
+            double strokeWidth = i % 3 == 0 ? 5 : 1;
+            vertical.setStrokeWidth(strokeWidth);
+            horizontal.setStrokeWidth(strokeWidth);
+            root.getChildren().addAll(vertical, horizontal);
+        }
+    }
+
+    /**
+     * Display alert message indicating the game is over and the game's outcome
+     */
+
+    public void endGame(Stage stage) {
+
+        stage.setAlwaysOnTop(false);
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("GAME OVER");
+
+        if (game.gameDraw()) {
+            alert.setHeaderText("The game is a draw");
+        } else {
+            alert.setHeaderText(game.playerWin() + " wins!");
+        }
+        alert.setContentText("Click New Game to Play Again");
+        alert.showAndWait();
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}